@@ -8,5 +8,14 @@ public interface EmbeddiumBakedModelExtension {
     default boolean useAmbientOcclusionWithLightEmission(BlockState state, RenderType renderType) {
         return false;
     }
+
+    /**
+     * Models which return true here promise that the parts they collect for the given state never depend on the
+     * position, level or random source. Embeddium may then collect the parts once and reuse them for every block with
+     * that state in a chunk.
+     */
+    default boolean hasStateOnlyGeometry(BlockState state) {
+        return false;
+    }
 }
 //?}
\ No newline at end of file
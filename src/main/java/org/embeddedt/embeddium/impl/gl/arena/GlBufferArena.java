@@ -30,6 +30,9 @@ public class GlBufferArena {
 
     private GlBufferSegment head;
 
+    // The free segments of the arena, indexed by size
+    private final SegregatedFreeList freeSegments = new SegregatedFreeList();
+
     private int capacity;
     private int used;
 
@@ -47,6 +50,7 @@ public class GlBufferArena {
 
         this.head = new GlBufferSegment(this, 0, initialCapacity);
         this.head.setFree(true);
+        this.freeSegments.add(this.head);
 
         this.arenaBuffer = commands.createMutableBuffer();
         commands.allocateStorage(this.arenaBuffer, (long)this.capacity * stride, BUFFER_USAGE);
@@ -71,6 +75,10 @@ public class GlBufferArena {
         this.head = new GlBufferSegment(this, 0, tail);
         this.head.setFree(true);
 
+        // Compaction leaves the new head as the only free segment
+        this.freeSegments.clear();
+        this.freeSegments.add(this.head);
+
         if (usedSegments.isEmpty()) {
             this.head.setNext(null);
         } else {
@@ -181,12 +189,14 @@ public class GlBufferArena {
     }
 
     private GlBufferSegment alloc(int size) {
-        GlBufferSegment a = this.findFree(size);
+        GlBufferSegment a = this.freeSegments.find(size);
 
         if (a == null) {
             return null;
         }
 
+        this.freeSegments.remove(a);
+
         GlBufferSegment result;
 
         if (a.getLength() == size) {
@@ -206,6 +216,9 @@ public class GlBufferArena {
             a.setLength(a.getLength() - size);
             a.setNext(b);
 
+            // The remainder is likely to belong to a smaller size class
+            this.freeSegments.add(a);
+
             result = b;
         }
 
@@ -215,27 +228,6 @@ public class GlBufferArena {
         return result;
     }
 
-    private GlBufferSegment findFree(int size) {
-        GlBufferSegment entry = this.head;
-        GlBufferSegment best = null;
-
-        while (entry != null) {
-            if (entry.isFree()) {
-                if (entry.getLength() == size) {
-                    return entry;
-                } else if (entry.getLength() >= size) {
-                    if (best == null || best.getLength() > entry.getLength()) {
-                        best = entry;
-                    }
-                }
-            }
-
-            entry = entry.getNext();
-        }
-
-        return best;
-    }
-
     public void free(GlBufferSegment entry) {
         if (entry.isFree()) {
             throw new IllegalStateException("Already freed");
@@ -248,18 +240,38 @@ public class GlBufferArena {
         GlBufferSegment next = entry.getNext();
 
         if (next != null && next.isFree()) {
+            this.freeSegments.remove(next);
             entry.mergeInto(next);
         }
 
         GlBufferSegment prev = entry.getPrev();
 
         if (prev != null && prev.isFree()) {
+            this.freeSegments.remove(prev);
             prev.mergeInto(entry);
+
+            entry = prev;
         }
 
+        this.freeSegments.add(entry);
+
         this.checkAssertions();
     }
 
+    /**
+     * {@return the number of separate free segments in the arena}
+     */
+    public int getFreeSegmentCount() {
+        return this.freeSegments.getSegmentCount();
+    }
+
+    /**
+     * {@return the number of bytes in the largest free segment of the arena}
+     */
+    public long getLargestFreeSegmentMemoryL() {
+        return (long)this.freeSegments.getLargestLength() * this.stride;
+    }
+
     public void delete(CommandList commands) {
         commands.deleteBuffer(this.arenaBuffer);
         this.capacity = -1;
@@ -412,6 +424,10 @@ public class GlBufferArena {
         if (this.used != used) {
             throw new IllegalStateException("arena.used is invalid");
         }
+
+        if (this.freeSegments.getFreeLength() != this.capacity - this.used) {
+            throw new IllegalStateException("arena.freeSegments does not match the free segments (corrupted)");
+        }
     }
 
 }
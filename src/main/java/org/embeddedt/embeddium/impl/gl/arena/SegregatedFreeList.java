@@ -0,0 +1,207 @@
+package org.embeddedt.embeddium.impl.gl.arena;
+
+import java.util.Arrays;
+
+/**
+ * Indexes the free segments of an arena by size, in the manner of a two-level segregated fit (TLSF) allocator, so that
+ * a free segment large enough for an allocation can be found in constant time.
+ *
+ * <p>The first level splits sizes into powers of two, and the second level splits each power of two into
+ * {@link #SECOND_LEVEL_COUNT} linear steps. Every size class holds a doubly-linked list of the free segments whose
+ * sizes fall within it, and a bitmap at each level records which lists are non-empty.</p>
+ */
+class SegregatedFreeList {
+    private static final int SECOND_LEVEL_LOG2 = 4;
+    private static final int SECOND_LEVEL_COUNT = 1 << SECOND_LEVEL_LOG2;
+
+    // Sizes below this are all placed in the first row, with one class per size
+    private static final int SMALL_SIZE = SECOND_LEVEL_COUNT;
+
+    private static final int FIRST_LEVEL_COUNT = Integer.SIZE - SECOND_LEVEL_LOG2 + 1;
+
+    private final GlBufferSegment[] heads = new GlBufferSegment[FIRST_LEVEL_COUNT * SECOND_LEVEL_COUNT];
+
+    private int firstLevelBitmap;
+    private final int[] secondLevelBitmaps = new int[FIRST_LEVEL_COUNT];
+
+    private int segmentCount;
+    private long freeLength;
+
+    /**
+     * Adds a free segment to the list for its size.
+     */
+    public void add(GlBufferSegment segment) {
+        int index = getClassIndex(segment.getLength());
+
+        GlBufferSegment head = this.heads[index];
+
+        segment.setNextFree(head);
+        segment.setPrevFree(null);
+
+        if (head != null) {
+            head.setPrevFree(segment);
+        }
+
+        this.heads[index] = segment;
+
+        int firstLevel = index / SECOND_LEVEL_COUNT;
+        this.firstLevelBitmap |= 1 << firstLevel;
+        this.secondLevelBitmaps[firstLevel] |= 1 << (index % SECOND_LEVEL_COUNT);
+
+        this.segmentCount++;
+        this.freeLength += segment.getLength();
+    }
+
+    /**
+     * Removes a free segment from the list for its size. The length of the segment must not have changed since it was
+     * added.
+     */
+    public void remove(GlBufferSegment segment) {
+        int index = getClassIndex(segment.getLength());
+
+        GlBufferSegment prev = segment.getPrevFree();
+        GlBufferSegment next = segment.getNextFree();
+
+        if (prev != null) {
+            prev.setNextFree(next);
+        } else {
+            this.heads[index] = next;
+
+            if (next == null) {
+                int firstLevel = index / SECOND_LEVEL_COUNT;
+                this.secondLevelBitmaps[firstLevel] &= ~(1 << (index % SECOND_LEVEL_COUNT));
+
+                if (this.secondLevelBitmaps[firstLevel] == 0) {
+                    this.firstLevelBitmap &= ~(1 << firstLevel);
+                }
+            }
+        }
+
+        if (next != null) {
+            next.setPrevFree(prev);
+        }
+
+        segment.setNextFree(null);
+        segment.setPrevFree(null);
+
+        this.segmentCount--;
+        this.freeLength -= segment.getLength();
+    }
+
+    /**
+     * Finds a free segment which is at least the given length, without removing it.
+     *
+     * <p>The search starts at the first size class whose segments are all large enough, which takes constant time. If
+     * that finds nothing, the segments in the class of the requested length are searched one by one, since some of
+     * them may still be large enough, and growing the arena instead is far more expensive.</p>
+     *
+     * @return A free segment of at least the given length, or null if there is none
+     */
+    public GlBufferSegment find(int length) {
+        int searchLength = roundUpToClass(length);
+
+        if (searchLength >= 0) {
+            GlBufferSegment segment = this.findInClassOrAbove(getClassIndex(searchLength));
+
+            if (segment != null) {
+                return segment;
+            }
+        }
+
+        for (GlBufferSegment segment = this.heads[getClassIndex(length)]; segment != null; segment = segment.getNextFree()) {
+            if (segment.getLength() >= length) {
+                return segment;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Forgets every free segment.
+     */
+    public void clear() {
+        Arrays.fill(this.heads, null);
+        Arrays.fill(this.secondLevelBitmaps, 0);
+
+        this.firstLevelBitmap = 0;
+        this.segmentCount = 0;
+        this.freeLength = 0;
+    }
+
+    public int getSegmentCount() {
+        return this.segmentCount;
+    }
+
+    public long getFreeLength() {
+        return this.freeLength;
+    }
+
+    /**
+     * {@return the length of the largest free segment}
+     */
+    public int getLargestLength() {
+        if (this.firstLevelBitmap == 0) {
+            return 0;
+        }
+
+        int firstLevel = 31 - Integer.numberOfLeadingZeros(this.firstLevelBitmap);
+        int secondLevel = 31 - Integer.numberOfLeadingZeros(this.secondLevelBitmaps[firstLevel]);
+
+        int largest = 0;
+
+        for (GlBufferSegment segment = this.heads[(firstLevel * SECOND_LEVEL_COUNT) + secondLevel]; segment != null; segment = segment.getNextFree()) {
+            largest = Math.max(largest, segment.getLength());
+        }
+
+        return largest;
+    }
+
+    private GlBufferSegment findInClassOrAbove(int index) {
+        int firstLevel = index / SECOND_LEVEL_COUNT;
+        int secondLevelMap = this.secondLevelBitmaps[firstLevel] & (-1 << (index % SECOND_LEVEL_COUNT));
+
+        if (secondLevelMap == 0) {
+            int firstLevelMap = firstLevel + 1 < Integer.SIZE ? this.firstLevelBitmap & (-1 << (firstLevel + 1)) : 0;
+
+            if (firstLevelMap == 0) {
+                return null;
+            }
+
+            firstLevel = Integer.numberOfTrailingZeros(firstLevelMap);
+            secondLevelMap = this.secondLevelBitmaps[firstLevel];
+        }
+
+        return this.heads[(firstLevel * SECOND_LEVEL_COUNT) + Integer.numberOfTrailingZeros(secondLevelMap)];
+    }
+
+    /**
+     * {@return the index of the size class containing the given length}
+     */
+    static int getClassIndex(int length) {
+        if (length < SMALL_SIZE) {
+            return length;
+        }
+
+        int log2 = 31 - Integer.numberOfLeadingZeros(length);
+        int firstLevel = log2 - SECOND_LEVEL_LOG2 + 1;
+        int secondLevel = (length >>> (log2 - SECOND_LEVEL_LOG2)) - SECOND_LEVEL_COUNT;
+
+        return (firstLevel * SECOND_LEVEL_COUNT) + secondLevel;
+    }
+
+    /**
+     * {@return the smallest length at or above the given length which starts a size class, so that every segment in
+     * that class and above is large enough} Returns a negative value if the result would overflow.
+     */
+    private static int roundUpToClass(int length) {
+        if (length < SMALL_SIZE) {
+            return length;
+        }
+
+        int log2 = 31 - Integer.numberOfLeadingZeros(length);
+        int step = (1 << (log2 - SECOND_LEVEL_LOG2)) - 1;
+
+        return (length + step) & ~step;
+    }
+}
@@ -58,6 +58,14 @@ public class EmbeddiumOptions {
         public boolean useNoErrorGLContext = true;
 
         public AsyncOcclusionMode asyncOcclusionMode = AsyncOcclusionMode.ONLY_SHADOW;
+        public boolean useFlatOcclusionGraph = false;
+        public int occlusionSearchThreads = 1;
+        public boolean useIncrementalOcclusionSearch = false;
+        public boolean useGreedyMeshing = false;
+        public boolean useBulkLightDataPrefill = false;
+        public boolean useStaticTranslucentOrdering = false;
+        public int translucentSortDataLimitMiB = 0;
+        public boolean useMotionAwareTranslucentSorting = false;
     }
 
     public static class AdvancedSettings {
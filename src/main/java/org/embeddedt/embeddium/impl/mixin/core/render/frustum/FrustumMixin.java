@@ -29,6 +29,6 @@ public class FrustumMixin implements ViewportProvider {
 
     @Override
     public Viewport sodium$createViewport() {
-        return new Viewport(new SimpleFrustum(this.intersection), new Vector3d(this.camX, this.camY, this.camZ));
+        return new Viewport(new SimpleFrustum(this.intersection, this.matrix), new Vector3d(this.camX, this.camY, this.camZ));
     }
 }
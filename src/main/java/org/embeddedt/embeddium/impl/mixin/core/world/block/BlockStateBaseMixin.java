@@ -0,0 +1,49 @@
+package org.embeddedt.embeddium.impl.mixin.core.world.block;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+import org.embeddedt.embeddium.impl.model.light.data.BlockStateLightDataExtended;
+import org.embeddedt.embeddium.impl.model.quad.ArrayLightDataCache;
+import org.embeddedt.embeddium.impl.render.chunk.compile.pipeline.BlockStateOcclusionExtended;
+import org.embeddedt.embeddium.impl.render.chunk.compile.pipeline.FaceOcclusionMask;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Precomputes the face occlusion masks and light data of each block state alongside the rest of its cached shapes.
+ */
+@Mixin(BlockBehaviour.BlockStateBase.class)
+public abstract class BlockStateBaseMixin implements BlockStateOcclusionExtended, BlockStateLightDataExtended {
+    @Unique
+    private @Nullable FaceOcclusionMask[] faceOcclusionMasks;
+
+    @Unique
+    private int stateLightData = NO_STATE_DATA;
+
+    @Shadow
+    protected abstract BlockState asState();
+
+    @Inject(method = "initCache", at = @At("RETURN"))
+    private void onCacheInitialized(CallbackInfo ci) {
+        this.faceOcclusionMasks = FaceOcclusionMask.forState(this.asState());
+        this.stateLightData = ArrayLightDataCache.computeStateData(this.asState());
+    }
+
+    @Override
+    public @Nullable FaceOcclusionMask sodium$getFaceOcclusionMask(Direction direction) {
+        var masks = this.faceOcclusionMasks;
+
+        return masks != null ? masks[direction.ordinal()] : null;
+    }
+
+    @Override
+    public int sodium$getStateLightData() {
+        return this.stateLightData;
+    }
+}
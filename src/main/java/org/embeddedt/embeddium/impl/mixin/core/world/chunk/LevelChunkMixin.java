@@ -0,0 +1,121 @@
+package org.embeddedt.embeddium.impl.mixin.core.world.chunk;
+
+import it.unimi.dsi.fastutil.ints.Int2ReferenceMap;
+import it.unimi.dsi.fastutil.ints.Int2ReferenceOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.embeddedt.embeddium.impl.world.BlockEntityIndexExtended;
+import org.embeddedt.embeddium.impl.world.WorldSlice;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Maintains a per-section index of the block entities in a chunk. The index is only built once it is first requested,
+ * so chunks which are never cloned for rendering (such as those of the integrated server) do not pay for it.
+ */
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin implements BlockEntityIndexExtended {
+    @Unique
+    private @Nullable Int2ReferenceOpenHashMap<BlockEntity>[] blockEntityIndex;
+
+    @Override
+    public @Nullable Int2ReferenceMap<BlockEntity> sodium$getSectionBlockEntities(int sectionIndex) {
+        var index = this.blockEntityIndex;
+
+        if (index == null) {
+            this.blockEntityIndex = index = this.createBlockEntityIndex();
+        }
+
+        if (sectionIndex < 0 || sectionIndex >= index.length) {
+            return null;
+        }
+
+        return index[sectionIndex];
+    }
+
+    @Inject(method = "setBlockEntity", at = @At("RETURN"))
+    private void onBlockEntitySet(BlockEntity blockEntity, CallbackInfo ci) {
+        this.updateBlockEntityIndex(blockEntity.getBlockPos());
+    }
+
+    @Inject(method = "removeBlockEntity", at = @At("RETURN"))
+    private void onBlockEntityRemoved(BlockPos pos, CallbackInfo ci) {
+        this.updateBlockEntityIndex(pos);
+    }
+
+    @Inject(method = "clearAllBlockEntities", at = @At("RETURN"))
+    private void onBlockEntitiesCleared(CallbackInfo ci) {
+        // Rebuilt from scratch the next time it is needed
+        this.blockEntityIndex = null;
+    }
+
+    /**
+     * Copies the current block entity at the given position (or its absence) from the chunk into the index. This
+     * reads back the chunk's own map, rather than assuming that the operation which was just performed succeeded.
+     */
+    @Unique
+    private void updateBlockEntityIndex(BlockPos pos) {
+        var index = this.blockEntityIndex;
+
+        if (index == null) {
+            return;
+        }
+
+        var chunk = (LevelChunk) (Object) this;
+        int sectionIndex = chunk.getSectionIndex(pos.getY());
+
+        if (sectionIndex < 0 || sectionIndex >= index.length) {
+            return;
+        }
+
+        int localIndex = WorldSlice.getLocalBlockIndex(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+        var blockEntity = chunk.getBlockEntities().get(pos);
+
+        var sectionBlockEntities = index[sectionIndex];
+
+        if (blockEntity != null) {
+            if (sectionBlockEntities == null) {
+                index[sectionIndex] = sectionBlockEntities = new Int2ReferenceOpenHashMap<>();
+            }
+
+            sectionBlockEntities.put(localIndex, blockEntity);
+        } else if (sectionBlockEntities != null) {
+            sectionBlockEntities.remove(localIndex);
+
+            if (sectionBlockEntities.isEmpty()) {
+                index[sectionIndex] = null;
+            }
+        }
+    }
+
+    @Unique
+    @SuppressWarnings("unchecked")
+    private Int2ReferenceOpenHashMap<BlockEntity>[] createBlockEntityIndex() {
+        var chunk = (LevelChunk) (Object) this;
+        var index = (Int2ReferenceOpenHashMap<BlockEntity>[]) new Int2ReferenceOpenHashMap[chunk.getSectionsCount()];
+
+        for (var blockEntity : chunk.getBlockEntities().values()) {
+            var pos = blockEntity.getBlockPos();
+            int sectionIndex = chunk.getSectionIndex(pos.getY());
+
+            if (sectionIndex < 0 || sectionIndex >= index.length) {
+                continue;
+            }
+
+            var sectionBlockEntities = index[sectionIndex];
+
+            if (sectionBlockEntities == null) {
+                index[sectionIndex] = sectionBlockEntities = new Int2ReferenceOpenHashMap<>();
+            }
+
+            sectionBlockEntities.put(WorldSlice.getLocalBlockIndex(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15), blockEntity);
+        }
+
+        return index;
+    }
+}
@@ -1,6 +1,7 @@
 package org.embeddedt.embeddium.impl.mixin.core.world.chunk;
 
 import net.minecraft.world.level.chunk.Strategy;
+import org.embeddedt.embeddium.impl.world.PackedPaletteSnapshot;
 import org.embeddedt.embeddium.impl.world.PaletteStorageExtended;
 import org.embeddedt.embeddium.impl.world.ReadableContainerExtended;
 import net.minecraft.world.level.chunk.PalettedContainer;
@@ -49,25 +50,27 @@ public abstract class PalettedContainerMixin<T> implements ReadableContainerExte
             throw new IllegalArgumentException("Array is wrong size");
         }
 
-        var data = Objects.requireNonNull(this.data, "PalettedContainer must have data");
-
-        var storage = data.storage();
-        var palette = data.palette();
+        var snapshot = this.sodium$snapshot();
 
         for (int y = minY; y <= maxY; y++) {
             for (int z = minZ; z <= maxZ; z++) {
                 for (int x = minX; x <= maxX; x++) {
                     int localBlockIndex = indexer.getIndex(x, y, z);
 
-                    int paletteIndex = storage.get(localBlockIndex);
-                    var paletteValue =  palette.valueFor(paletteIndex);
-
-                    values[localBlockIndex] = Objects.requireNonNull(paletteValue, "Palette does not contain entry for value in storage");
+                    values[localBlockIndex] = Objects.requireNonNull(snapshot.get(localBlockIndex), "Palette does not contain entry for value in storage");
                 }
             }
         }
     }
 
+    @Override
+    public PackedPaletteSnapshot<T> sodium$snapshot() {
+        var data = Objects.requireNonNull(this.data, "PalettedContainer must have data");
+        var storage = data.storage();
+
+        return new PackedPaletteSnapshot<>(storage.getRaw(), storage.getBits(), storage.getSize(), data.palette());
+    }
+
     @Override
     public PalettedContainer<T> sodium$copy() {
         return this.copy();
@@ -0,0 +1,26 @@
+package org.embeddedt.embeddium.impl.model.light.data;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Provides the light data fields of a block state which do not depend on the position of the block, so that they do
+ * not need to be computed again for every block. They are computed whenever the cached shapes of the state are
+ * rebuilt (such as after tags and data packs are reloaded).
+ */
+public interface BlockStateLightDataExtended {
+    /**
+     * Returned for block states whose properties may depend on their position, or which have not been initialized yet.
+     * This can never be a valid result, as the light level fields are never set.
+     */
+    int NO_STATE_DATA = 0xFF;
+
+    static BlockStateLightDataExtended of(BlockState state) {
+        return (BlockStateLightDataExtended) state;
+    }
+
+    /**
+     * @return The packed {@link LightDataAccess} fields of the block state, without the block and sky light levels,
+     * or {@link #NO_STATE_DATA} if they must be computed for each block
+     */
+    int sodium$getStateLightData();
+}
@@ -54,6 +54,30 @@ public abstract class LightDataAccess {
 
     protected abstract int compute(int x, int y, int z);
 
+    /**
+     * Computes the light data of every block in the cache region at once, rather than as each block is first
+     * accessed. This is faster when most of the region will be accessed, as the blocks are visited in the order they
+     * are stored, and the cache no longer needs to check for missing entries. It must be called after
+     * {@link #reset(int, int, int)}.
+     */
+    public void prefill() {
+        int[] light = this.light;
+
+        int xOffset = this.xOffset;
+        int yOffset = this.yOffset;
+        int zOffset = this.zOffset;
+
+        int index = 0;
+
+        for (int z = 0; z < BLOCK_LENGTH; z++) {
+            for (int y = 0; y < BLOCK_LENGTH; y++) {
+                for (int x = 0; x < BLOCK_LENGTH; x++) {
+                    light[index++] = this.compute(xOffset + x, yOffset + y, zOffset + z);
+                }
+            }
+        }
+    }
+
     /**
      * Returns the light data for the block at the given position. The property fields can then be accessed using
      * the various unpack methods below.
@@ -3,8 +3,13 @@ package org.embeddedt.embeddium.impl.model.quad;
 import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
 import net.minecraft.world.level.LightLayer;
 import net.minecraft.world.level.block.state.BlockState;
+import org.embeddedt.embeddium.impl.model.light.data.BlockStateLightDataExtended;
 import org.embeddedt.embeddium.impl.model.light.data.LightDataAccess;
 import org.embeddedt.embeddium.impl.util.WorldUtil;
 import org.embeddedt.embeddium.impl.world.WorldSlice;
@@ -16,25 +21,51 @@ import net.minecraft.world.level.BlockAndTintGetter;
  * can be re-used by {@link WorldSlice} to avoid allocations.
  */
 public class ArrayLightDataCache extends LightDataAccess {
+    private static final int STATE_DATA_MASK = ~(packBL(0xF) | packSL(0xF));
+
     private final BlockAndTintGetter world;
     private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
 
+    // Whether light levels are currently being read from the world slice directly
+    private boolean directLightAccess;
+
     public ArrayLightDataCache(BlockAndTintGetter world) {
         this.world = world;
     }
 
+    /**
+     * Computes the light data for every block in the cache region. As the light levels of every block are needed,
+     * they are read straight from the light arrays of the world slice where possible, rather than through
+     * {@link LevelRenderer#getLightColor(BlockAndTintGetter, BlockPos)}. This skips any changes which other mods make
+     * to that method.
+     */
+    @Override
+    public void prefill() {
+        this.directLightAccess = this.world instanceof WorldSlice;
+
+        try {
+            super.prefill();
+        } finally {
+            this.directLightAccess = false;
+        }
+    }
+
     protected int compute(int x, int y, int z) {
         BlockPos pos = this.pos.set(x, y, z);
         BlockAndTintGetter world = this.world;
 
         BlockState state = world.getBlockState(pos);
 
-        boolean em = state.emissiveRendering(/*? if >=1.16 {*/world, pos/*?}*/);
-        boolean op = state.isViewBlocking(world, pos) && state.getLightBlock() != 0;
-        boolean fo = state.isSolidRender();
-        boolean fc = state.isCollisionShapeFullBlock(world, pos);
+        int stateData = BlockStateLightDataExtended.of(state).sodium$getStateLightData();
 
-        int lu = WorldUtil.getLightEmission(state, world, pos);
+        if (stateData == BlockStateLightDataExtended.NO_STATE_DATA) {
+            stateData = computeStateData(state, world, pos);
+        }
+
+        boolean em = unpackEM(stateData);
+        boolean fo = unpackFO(stateData);
+
+        int lu = unpackLU(stateData);
 
         // OPTIMIZE: Do not calculate light data if the block is full and opaque and does not emit light.
         int bl;
@@ -42,6 +73,14 @@ public class ArrayLightDataCache extends LightDataAccess {
         if (fo && lu == 0) {
             bl = 0;
             sl = 0;
+        } else if (this.directLightAccess) {
+            // Equivalent to the vanilla logic below, without going through the world
+            bl = world.getBrightness(LightLayer.BLOCK, pos);
+            sl = world.getBrightness(LightLayer.SKY, pos);
+
+            if (!em) {
+                bl = Math.max(bl, lu);
+            }
         } else {
             // calculate light data using custom approach for emissive blocks, and vanilla otherwise
             if (em) {
@@ -55,6 +94,21 @@ public class ArrayLightDataCache extends LightDataAccess {
             }
         }
 
+        return stateData | packSL(sl) | packBL(bl);
+    }
+
+    /**
+     * Computes the light data fields of the given block state which do not depend on the light levels at the position
+     * of the block.
+     */
+    private static int computeStateData(BlockState state, BlockGetter world, BlockPos pos) {
+        boolean em = state.emissiveRendering(/*? if >=1.16 {*/world, pos/*?}*/);
+        boolean op = state.isViewBlocking(world, pos) && state.getLightBlock() != 0;
+        boolean fo = state.isSolidRender();
+        boolean fc = state.isCollisionShapeFullBlock(world, pos);
+
+        int lu = WorldUtil.getLightEmission(state, world, pos);
+
         // FIX: Do not apply AO from blocks that emit light
         float ao;
         if (lu == 0) {
@@ -63,6 +117,25 @@ public class ArrayLightDataCache extends LightDataAccess {
             ao = 1.0f;
         }
 
-        return packFC(fc) | packFO(fo) | packOP(op) | packEM(em) | packAO(ao) | packLU(lu) | packSL(sl) | packBL(bl);
+        return (packFC(fc) | packFO(fo) | packOP(op) | packEM(em) | packAO(ao) | packLU(lu)) & STATE_DATA_MASK;
+    }
+
+    /**
+     * Computes the light data fields of the given block state ahead of time, if they are known not to depend on the
+     * position of the block.
+     *
+     * @return The packed fields, or {@link BlockStateLightDataExtended#NO_STATE_DATA} if they must be computed for
+     * each block
+     */
+    public static int computeStateData(BlockState state) {
+        var block = state.getBlock();
+
+        // Blocks with dynamic shapes aren't cached by vanilla either, and modded blocks are free to override any of
+        // the above properties based on their surroundings
+        if (block.hasDynamicShape() || !ResourceLocation.DEFAULT_NAMESPACE.equals(BuiltInRegistries.BLOCK.getKey(block).getNamespace())) {
+            return BlockStateLightDataExtended.NO_STATE_DATA;
+        }
+
+        return computeStateData(state, EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
     }
-}
\ No newline at end of file
+}
@@ -138,6 +138,11 @@ public class EmbeddiumWorldRenderer extends SimpleWorldRenderer<ClientLevel, Mod
             return ChunkMeshFormats.VANILLA_LIKE;
         }
 
+        // Shader packs use their own fragment shaders, which would not repeat the textures of merged faces
+        if (Embeddium.options().performance.useGreedyMeshing && !ShaderModBridge.areShadersEnabled()) {
+            return ChunkMeshFormats.COMPACT_TILING;
+        }
+
         return ChunkMeshFormats.COMPACT;
     }
 
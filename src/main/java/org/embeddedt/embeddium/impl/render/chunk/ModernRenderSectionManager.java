@@ -34,6 +34,7 @@ import org.embeddedt.embeddium.impl.render.viewport.Viewport;
 import org.embeddedt.embeddium.impl.util.WorldUtil;
 import org.embeddedt.embeddium.impl.sodium.FlawlessFrames;
 import org.embeddedt.embeddium.impl.world.WorldSlice;
+import org.embeddedt.embeddium.impl.world.biome.SharedBiomeColorCache;
 import org.embeddedt.embeddium.impl.world.cloned.ChunkRenderContext;
 import org.embeddedt.embeddium.impl.world.cloned.ClonedChunkSectionCache;
 import org.jetbrains.annotations.Nullable;
@@ -41,11 +42,13 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ModernRenderSectionManager extends RenderSectionManager {
     private final ClientLevel world;
     @Getter
     private final ClonedChunkSectionCache sectionCache;
+    private final SharedBiomeColorCache biomeColorCache = new SharedBiomeColorCache();
 
     protected ModernRenderSectionManager(RenderPassConfiguration<?> configuration, ClientLevel world, int renderDistance, CommandList commandList) {
         super(configuration,
@@ -78,6 +81,26 @@ public class ModernRenderSectionManager extends RenderSectionManager {
         return Embeddium.options().performance.asyncOcclusionMode;
     }
 
+    @Override
+    protected boolean useFlatOcclusionGraph() {
+        return Embeddium.options().performance.useFlatOcclusionGraph;
+    }
+
+    @Override
+    protected int getOcclusionSearchThreads() {
+        return Embeddium.options().performance.occlusionSearchThreads;
+    }
+
+    @Override
+    protected boolean useIncrementalOcclusionSearch() {
+        return Embeddium.options().performance.useIncrementalOcclusionSearch;
+    }
+
+    @Override
+    protected boolean useMotionAwareTranslucentSorting() {
+        return Embeddium.options().performance.useMotionAwareTranslucentSorting;
+    }
+
     @Override
     protected boolean shouldUseOcclusionCulling(Viewport viewport, boolean spectator) {
         final boolean useOcclusionCulling;
@@ -96,18 +119,21 @@ public class ModernRenderSectionManager extends RenderSectionManager {
 
     @Override
     public void updateChunks(boolean updateImmediately) {
-        this.sectionCache.cleanup();
+        this.sectionCache.setCapacity(this.getTotalSections());
         super.updateChunks(updateImmediately);
     }
 
     @Override
     protected @Nullable ChunkBuilderMeshingTask createRebuildTask(RenderSection render, int frame) {
-        ChunkRenderContext context = WorldSlice.prepare(this.world, SectionPos.of(render.getChunkX(), render.getChunkY(), render.getChunkZ()), this.sectionCache);
+        ChunkRenderContext context = WorldSlice.prepare(this.world, SectionPos.of(render.getChunkX(), render.getChunkY(), render.getChunkZ()), this.sectionCache,
+                render.getExtraSections());
 
         if (context == null) {
             return null;
         }
 
+        context.withBiomeColorCache(this.biomeColorCache);
+
         return new ChunkBuilderMeshingTask(render, context, frame, this.cameraPosition);
     }
 
@@ -117,6 +143,43 @@ public class ModernRenderSectionManager extends RenderSectionManager {
         this.sectionCache.invalidate(section.getChunkX(), section.getChunkY(), section.getChunkZ());
     }
 
+    @Override
+    protected void scheduleSectionForRebuild(int x, int y, int z, boolean important) {
+        // The section may have been cloned as the neighbor of a tracked section, even if it isn't tracked itself
+        this.sectionCache.invalidate(x, y, z);
+        super.scheduleSectionForRebuild(x, y, z, important);
+    }
+
+    @Override
+    public void onChunkAdded(int x, int z) {
+        this.invalidateCachedChunkNeighborhood(x, z);
+        super.onChunkAdded(x, z);
+    }
+
+    @Override
+    public void onChunkRemoved(int x, int z) {
+        this.invalidateCachedChunkNeighborhood(x, z);
+        super.onChunkRemoved(x, z);
+    }
+
+    /**
+     * Chunks only become ready once their neighbors are loaded, and stop being ready as soon as a neighbor unloads.
+     * Invalidating the neighbors here ensures that a chunk which was reloaded in between is never served from the
+     * cache, even if it didn't become ready itself.
+     */
+    private void invalidateCachedChunkNeighborhood(int x, int z) {
+        for (int ox = -1; ox <= 1; ox++) {
+            for (int oz = -1; oz <= 1; oz++) {
+                this.sectionCache.invalidateChunk(x + ox, z + oz);
+            }
+        }
+    }
+
+    @Override
+    protected Collection<String> getWorldDataDebugStrings() {
+        return List.of(this.sectionCache.getDebugString(), this.biomeColorCache.getDebugString(), WorldSlice.getFallbackDebugString());
+    }
+
     @Override
     protected @Nullable SectionTicker createSectionTicker() {
         return new GenericSectionSpriteTicker<>(SpriteUtil::markSpriteActive);
@@ -133,6 +196,18 @@ public class ModernRenderSectionManager extends RenderSectionManager {
         return !Embeddium.options().performance.alwaysDeferChunkUpdates;
     }
 
+    @Override
+    protected long getTargetFrameTimeNanos() {
+        int framerateLimit = Minecraft.getInstance().options.framerateLimit().get();
+
+        // The maximum value of the slider (260) means the framerate is unlimited
+        if (framerateLimit >= 260) {
+            return super.getTargetFrameTimeNanos();
+        }
+
+        return TimeUnit.SECONDS.toNanos(1) / framerateLimit;
+    }
+
     @Override
     protected boolean shouldRespectUpdateTaskQueueSizeLimit() {
         return !FlawlessFrames.isActive();
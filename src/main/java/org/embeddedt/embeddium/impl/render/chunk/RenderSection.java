@@ -1,5 +1,6 @@
 package org.embeddedt.embeddium.impl.render.chunk;
 
+import it.unimi.dsi.fastutil.longs.LongArrays;
 import lombok.Getter;
 import lombok.Setter;
 import org.embeddedt.embeddium.impl.render.chunk.data.BuiltRenderSectionData;
@@ -72,9 +73,22 @@ public class RenderSection extends AbstractSection {
     @Setter
     private long lastBuildDurationNanos;
 
+    /**
+     * The positions of the sections outside of this section's world slice which were read during its last build, so
+     * that they can be cloned along with the slice when it is next built.
+     */
+    @Getter
+    @Setter
+    private long @NotNull [] extraSections = LongArrays.EMPTY_ARRAY;
+
     // Used by the translucency sorter, to determine when a section needs sorting again
     public double lastCameraX, lastCameraY, lastCameraZ;
 
+    // The camera position which the translucent quads were last sorted for, and how far the camera can move away from
+    // it before their order could change
+    private double sortedCameraX, sortedCameraY, sortedCameraZ;
+    private float stableSortDistance;
+
     public RenderSection(RenderRegion region, int chunkX, int chunkY, int chunkZ) {
         super(chunkX, chunkY, chunkZ);
 
@@ -152,6 +166,28 @@ public class RenderSection extends AbstractSection {
 
         this.highestSortingLevel = level;
         this.needsDynamicTranslucencySorting = needsDynamicSorting;
+
+        // Nothing is known about when the order of the new quads could change until they are sorted again
+        this.stableSortDistance = 0.0f;
+    }
+
+    public void setSortedCameraPosition(double x, double y, double z, float stableDistance) {
+        this.sortedCameraX = x;
+        this.sortedCameraY = y;
+        this.sortedCameraZ = z;
+        this.stableSortDistance = stableDistance;
+    }
+
+    /**
+     * {@return how much further the camera can move from the given position before the order of the translucent quads
+     * could change} The result is zero or negative if the order may already have changed.
+     */
+    public double getRemainingStableSortDistance(double x, double y, double z) {
+        double dx = x - this.sortedCameraX;
+        double dy = y - this.sortedCameraY;
+        double dz = z - this.sortedCameraZ;
+
+        return this.stableSortDistance - Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
     }
 
     public @Nullable CancellationToken getBuildCancellationToken() {
@@ -2,6 +2,7 @@ package org.embeddedt.embeddium.impl.render.chunk;
 
 import it.unimi.dsi.fastutil.longs.Long2ReferenceMap;
 import it.unimi.dsi.fastutil.longs.Long2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
 import it.unimi.dsi.fastutil.objects.*;
 import lombok.Getter;
 import org.embeddedt.embeddium.impl.util.TimeUtil;
@@ -10,10 +11,12 @@ import org.embeddedt.embeddium.impl.gl.device.RenderDevice;
 import org.embeddedt.embeddium.impl.gl.profiling.TimerQueryManager;
 import org.embeddedt.embeddium.impl.render.chunk.compile.ChunkBuildContext;
 import org.embeddedt.embeddium.impl.render.chunk.compile.ChunkBuildOutput;
+import org.embeddedt.embeddium.impl.render.chunk.compile.ChunkSortOutput;
 import org.embeddedt.embeddium.impl.render.chunk.compile.ChunkTaskOutput;
 import org.embeddedt.embeddium.impl.render.chunk.compile.executor.ChunkBuilder;
 import org.embeddedt.embeddium.impl.render.chunk.compile.executor.ChunkJobMetricsTracker;
 import org.embeddedt.embeddium.impl.render.chunk.compile.executor.ChunkJobResult;
+import org.embeddedt.embeddium.impl.render.chunk.compile.executor.ChunkJobTyped;
 import org.embeddedt.embeddium.impl.render.chunk.compile.executor.ChunkJobCollector;
 import org.embeddedt.embeddium.impl.render.chunk.compile.tasks.ChunkBuilderSortTask;
 import org.embeddedt.embeddium.impl.render.chunk.compile.tasks.ChunkBuilderTask;
@@ -26,6 +29,7 @@ import org.embeddedt.embeddium.impl.render.chunk.lists.SectionTicker;
 import org.embeddedt.embeddium.impl.render.chunk.lists.SortedRenderLists;
 import org.embeddedt.embeddium.impl.render.chunk.metrics.RenderSectionMetricsTracker;
 import org.embeddedt.embeddium.impl.render.chunk.occlusion.AsyncOcclusionMode;
+import org.embeddedt.embeddium.impl.render.chunk.occlusion.FlatOcclusionCuller;
 import org.embeddedt.embeddium.impl.render.chunk.occlusion.VisibilityEncoding;
 import org.embeddedt.embeddium.impl.render.chunk.region.RenderRegion;
 import org.embeddedt.embeddium.impl.render.chunk.region.RenderRegionManager;
@@ -36,6 +40,7 @@ import org.embeddedt.embeddium.impl.util.MathUtil;
 import org.embeddedt.embeddium.impl.render.viewport.Viewport;
 import org.embeddedt.embeddium.impl.util.PositionUtil;
 import org.embeddedt.embeddium.impl.util.iterator.ByteIterator;
+import org.embeddedt.embeddium.impl.render.chunk.sorting.SortStateMemoryTracker;
 import org.embeddedt.embeddium.impl.render.chunk.sorting.TranslucentQuadAnalyzer;
 import org.embeddedt.embeddium.impl.util.suppliers.ExpiringSupplier;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
@@ -58,6 +63,12 @@ public abstract class RenderSectionManager {
      */
     protected static final boolean CONTINUOUSLY_REMESH_WORLD = false;
 
+    /**
+     * The maximum number of sections outside of its world slice which a section may read from and still have them
+     * cloned up front for its next build. This is the number of sections in the slice itself.
+     */
+    private static final int MAX_EXTRA_SECTIONS = 27;
+
     private final ChunkBuilder builder;
 
     private final Thread renderThread = Thread.currentThread();
@@ -99,6 +110,23 @@ public abstract class RenderSectionManager {
 
     @Getter
     protected final RenderSectionMetricsTracker sectionMetricsTracker = new RenderSectionMetricsTracker();
+    private final SortStateMemoryTracker sortStateMemoryTracker = new SortStateMemoryTracker();
+
+    // The state of the last check for sections to sort again, which doesn't need to be repeated while the camera stays
+    // within the radius around the position it was made at
+    private SortedRenderLists resortCheckRenderLists;
+    private int resortCheckSectionX, resortCheckSectionY, resortCheckSectionZ;
+    private final Vector3d resortCheckPosition = new Vector3d();
+    private double resortCheckRadius;
+
+    private long sortsScheduled, sortsAvoided, resortChecksSkipped;
+
+    private long lastChunkUpdateTime = System.nanoTime();
+
+    // Jobs which were superseded by a newer build of the same section, either before they started executing (and
+    // were cancelled), or after (and were left to finish)
+    private long supersededQueuedJobs, supersededRunningJobs;
+    private long wastedBuildTimeNanos;
 
     @Deprecated
     public RenderSectionManager(RenderPassConfiguration<?> configuration, Supplier<ChunkBuildContext> contextSupplier,
@@ -124,9 +152,9 @@ public abstract class RenderSectionManager {
 
         this.minSection = minSection;
         this.maxSection = maxSection;
-        this.renderListManager = new RenderListManager(this.minSection, this.maxSection, this.getAsyncOcclusionMode() == AsyncOcclusionMode.EVERYTHING, this.createSectionTicker());
+        this.renderListManager = new RenderListManager(this.minSection, this.maxSection, this.getAsyncOcclusionMode() == AsyncOcclusionMode.EVERYTHING, this.createFlatGraphSettings(), this.createSectionTicker());
         if (hasShadowPass) {
-            this.shadowRenderListManager = new RenderListManager(this.minSection, this.maxSection, this.getAsyncOcclusionMode() != AsyncOcclusionMode.NONE, this.createSectionTicker());
+            this.shadowRenderListManager = new RenderListManager(this.minSection, this.maxSection, this.getAsyncOcclusionMode() != AsyncOcclusionMode.NONE, this.createFlatGraphSettings(), this.createSectionTicker());
         } else {
             this.shadowRenderListManager = null;
         }
@@ -136,6 +164,49 @@ public abstract class RenderSectionManager {
 
     protected abstract AsyncOcclusionMode getAsyncOcclusionMode();
 
+    /**
+     * {@return true if the occlusion graph should be stored in a flat array grid rather than as linked nodes}
+     */
+    protected boolean useFlatOcclusionGraph() {
+        return false;
+    }
+
+    /**
+     * {@return the number of threads each graph search should be split across, or a value less than 2 to search on a
+     * single thread}
+     */
+    protected int getOcclusionSearchThreads() {
+        return 1;
+    }
+
+    /**
+     * {@return true if graph searches should reuse the results of the previous search when only part of the graph
+     * has changed}
+     */
+    protected boolean useIncrementalOcclusionSearch() {
+        return false;
+    }
+
+    /**
+     * {@return true if sections should only be sorted again once the camera has moved far enough that the order of
+     * their translucent quads could have changed}
+     */
+    protected boolean useMotionAwareTranslucentSorting() {
+        return false;
+    }
+
+    private @Nullable FlatOcclusionCuller.Settings createFlatGraphSettings() {
+        int searchThreads = this.getOcclusionSearchThreads();
+        boolean incremental = this.useIncrementalOcclusionSearch();
+
+        // Multithreaded and incremental searches are only supported by the flat graph
+        if (!this.useFlatOcclusionGraph() && searchThreads <= 1 && !incremental) {
+            return null;
+        }
+
+        return new FlatOcclusionCuller.Settings(searchThreads, incremental);
+    }
+
     protected @Nullable SectionTicker createSectionTicker() {
         return null;
     }
@@ -209,6 +280,13 @@ public abstract class RenderSectionManager {
         if (!this.hasTranslucencySortedSections()) {
             return;
         }
+        boolean motionAware = this.useMotionAwareTranslucentSorting();
+        if (motionAware && this.canSkipResortCheck(renderListManager.getRenderLists(), camSectionX, camSectionY, camSectionZ)) {
+            this.resortChecksSkipped++;
+            return;
+        }
+        // How far the camera can move before any section we look at could need to be sorted again
+        double resortCheckRadius = Double.POSITIVE_INFINITY;
         for (Iterator<ChunkRenderList> it = renderListManager.getRenderLists().iterator(); it.hasNext(); ) {
             ChunkRenderList entry = it.next();
             var region = entry.getRegion();
@@ -230,7 +308,8 @@ public abstract class RenderSectionManager {
                 ChunkUpdateType update = ChunkUpdateType.getPromotionUpdateType(section.getPendingUpdate(), (allowImportant && this.shouldPrioritizeRebuild(section)) ? ChunkUpdateType.IMPORTANT_SORT : ChunkUpdateType.SORT);
 
                 if (update == null) {
-                    // We wouldn't be able to resort this section anyway
+                    // We wouldn't be able to resort this section anyway. Once the pending update is done, its result
+                    // forces the next check to look at every section again.
                     continue;
                 }
 
@@ -241,17 +320,33 @@ public abstract class RenderSectionManager {
 
                 if (camDelta < 1) {
                     // Didn't move enough, ignore
+                    if (motionAware) {
+                        resortCheckRadius = Math.min(resortCheckRadius, Math.max(1 - Math.sqrt(camDelta),
+                                section.getRemainingStableSortDistance(cameraPosition.x, cameraPosition.y, cameraPosition.z)));
+                    }
                     continue;
                 }
 
+                // Sections which fail this test can only be sorted once the camera enters another section, which also
+                // forces the next check to look at every section again
                 boolean cameraChangedSection = camSectionX != PositionUtil.posToSectionCoord(section.lastCameraX) ||
                         camSectionY != PositionUtil.posToSectionCoord(section.lastCameraY) ||
                         camSectionZ != PositionUtil.posToSectionCoord(section.lastCameraZ);
 
                 if (cameraChangedSection || section.isAlignedWithSectionOnGrid(camSectionX, camSectionY, camSectionZ)) {
-                    section.setPendingUpdate(update);
-                    // Inject it into the rebuild lists
-                    (update == ChunkUpdateType.IMPORTANT_SORT ? importantSortRebuildList : sortRebuildList).add(section);
+                    double stableDistance = motionAware ? section.getRemainingStableSortDistance(cameraPosition.x, cameraPosition.y, cameraPosition.z) : 0;
+
+                    if (stableDistance > 0) {
+                        // The order of the quads can't have changed since they were last sorted
+                        this.sortsAvoided++;
+                        resortCheckRadius = Math.min(resortCheckRadius, Math.max(1, stableDistance));
+                    } else {
+                        section.setPendingUpdate(update);
+                        // Inject it into the rebuild lists
+                        (update == ChunkUpdateType.IMPORTANT_SORT ? importantSortRebuildList : sortRebuildList).add(section);
+                        this.sortsScheduled++;
+                        resortCheckRadius = 0;
+                    }
 
                     section.lastCameraX = cameraPosition.x;
                     section.lastCameraY = cameraPosition.y;
@@ -259,6 +354,37 @@ public abstract class RenderSectionManager {
                 }
             }
         }
+        if (motionAware) {
+            this.setResortCheck(renderListManager.getRenderLists(), camSectionX, camSectionY, camSectionZ, resortCheckRadius);
+        }
+    }
+
+    /**
+     * {@return true if no section could need to be sorted again since the render lists were last checked} This is the
+     * case while the render lists and the section containing the camera stay the same, and the camera stays closer to
+     * the position it was checked at than the smallest distance any of the sections could still move without needing
+     * to be sorted.
+     */
+    private boolean canSkipResortCheck(SortedRenderLists renderLists, int camSectionX, int camSectionY, int camSectionZ) {
+        if (renderLists != this.resortCheckRenderLists || camSectionX != this.resortCheckSectionX ||
+                camSectionY != this.resortCheckSectionY || camSectionZ != this.resortCheckSectionZ) {
+            return false;
+        }
+
+        return this.cameraPosition.distance(this.resortCheckPosition) < this.resortCheckRadius;
+    }
+
+    private void setResortCheck(SortedRenderLists renderLists, int camSectionX, int camSectionY, int camSectionZ, double radius) {
+        this.resortCheckRenderLists = renderLists;
+        this.resortCheckSectionX = camSectionX;
+        this.resortCheckSectionY = camSectionY;
+        this.resortCheckSectionZ = camSectionZ;
+        this.resortCheckPosition.set(this.cameraPosition);
+        this.resortCheckRadius = radius;
+    }
+
+    private void invalidateResortCheck() {
+        this.resortCheckRenderLists = null;
     }
 
     protected abstract boolean shouldRespectUpdateTaskQueueSizeLimit();
@@ -347,6 +473,7 @@ public abstract class RenderSectionManager {
         }
 
         this.sectionMetricsTracker.removeSection(section);
+        this.sortStateMemoryTracker.release(section.getTranslucencySortStates());
 
         section.delete();
 
@@ -406,6 +533,12 @@ public abstract class RenderSectionManager {
         this.regions.update();
         this.jobMetricsTracker.tick();
 
+        if (!this.isInShadowPass()) {
+            this.builder.setCameraPosition(PositionUtil.posToSectionCoord(this.cameraPosition.x),
+                    PositionUtil.posToSectionCoord(this.cameraPosition.y),
+                    PositionUtil.posToSectionCoord(this.cameraPosition.z));
+        }
+
         // Promotion of the interim rebuild list is not required if a graph update is requested, as the graph
         // generates a new rebuild list anyway
         if (!this.renderListManager.isNeedsUpdate() && !sectionsRequestingUpdate.isEmpty()) {
@@ -418,6 +551,9 @@ public abstract class RenderSectionManager {
             if (CONTINUOUSLY_REMESH_WORLD && !this.getCurrentRenderListManager().getRebuildLists().hasAdditionalUpdates()) {
                 this.scheduleRebuildAll();
             }
+            if (!this.isInShadowPass()) {
+                this.updateBuilderLoad(false);
+            }
             return;
         }
 
@@ -437,6 +573,26 @@ public abstract class RenderSectionManager {
 
         // Tick singlethreaded rebuilds
         this.builder.tick();
+
+        if (!this.isInShadowPass()) {
+            this.updateBuilderLoad(this.rebuildListHasUpdates() || this.getCurrentRenderListManager().getRebuildLists().hasAdditionalUpdates());
+        }
+    }
+
+    private void updateBuilderLoad(boolean backlogged) {
+        long time = System.nanoTime();
+        long frameTime = time - this.lastChunkUpdateTime;
+        this.lastChunkUpdateTime = time;
+
+        this.builder.updateLoad(frameTime, this.getTargetFrameTimeNanos(), backlogged, this.jobMetricsTracker);
+    }
+
+    /**
+     * {@return the frame time which the game is trying to achieve, used to decide how much of each frame can be
+     * spent on chunk updates}
+     */
+    protected long getTargetFrameTimeNanos() {
+        return TimeUnit.SECONDS.toNanos(1) / 60;
     }
 
     public void uploadChunks() {
@@ -467,7 +623,7 @@ public abstract class RenderSectionManager {
     }
 
     private void processChunkBuildResults(ArrayList<ChunkJobResult.Success<? extends ChunkTaskOutput>> results) {
-        var filtered = filterChunkBuildResults(results);
+        var filtered = this.filterChunkBuildResults(results);
 
         this.regions.uploadMeshes(RenderDevice.INSTANCE.createCommandList(), filtered, this::markGraphDirty);
 
@@ -485,6 +641,9 @@ public abstract class RenderSectionManager {
 
                 // We only change the translucency info on full rebuilds, as sorts can keep using the same data
                 this.updateTranslucencyInfo(result.render, buildResult.meshes);
+                this.updateExtraSections(result.render, buildResult);
+            } else if (result instanceof ChunkSortOutput sortResult) {
+                result.render.setSortedCameraPosition(sortResult.cameraX, sortResult.cameraY, sortResult.cameraZ, sortResult.stableCameraDistance);
             }
 
             var job = result.render.getBuildCancellationToken();
@@ -500,14 +659,38 @@ public abstract class RenderSectionManager {
 
     private void updateTranslucencyInfo(RenderSection render, Map<TerrainRenderPass, BuiltSectionMeshParts> meshes) {
         Map<TerrainRenderPass, TranslucentQuadAnalyzer.SortState> sortStates = new Reference2ObjectArrayMap<>();
+        int camSectionX = PositionUtil.posToSectionCoord(cameraPosition.x);
+        int camSectionY = PositionUtil.posToSectionCoord(cameraPosition.y);
+        int camSectionZ = PositionUtil.posToSectionCoord(cameraPosition.z);
+        this.sortStateMemoryTracker.release(render.getTranslucencySortStates());
         for(var entry : meshes.entrySet()) {
             if(entry.getKey().isSorted()) {
-                sortStates.put(entry.getKey(), Objects.requireNonNull(entry.getValue().sortState()).compactForStorage());
+                var sortState = Objects.requireNonNull(entry.getValue().sortState()).compactForStorage();
+                sortStates.put(entry.getKey(), this.sortStateMemoryTracker.retain(render, sortState, camSectionX, camSectionY, camSectionZ));
             }
         }
         render.setTranslucencySortStates(sortStates.isEmpty() ? Collections.emptyMap() : sortStates);
     }
 
+    /**
+     * Remembers which sections outside of its world slice a section read from, so that they are cloned up front for
+     * its next build. If some of them had not been cloned, the blocks in them were read as air, so the section is built
+     * again. Sections which read from too many other sections are not retried, as their next build may well read from
+     * even more of them.
+     */
+    private void updateExtraSections(RenderSection render, ChunkBuildOutput output) {
+        if (output.extraSections.length > MAX_EXTRA_SECTIONS) {
+            render.setExtraSections(LongArrays.EMPTY_ARRAY);
+            return;
+        }
+
+        render.setExtraSections(output.extraSections);
+
+        if (output.missedExtraSections && render.requestUpdate(ChunkUpdateType.REBUILD)) {
+            this.markGraphDirty();
+        }
+    }
+
     @MustBeInvokedByOverriders
     protected boolean updateSectionInfo(RenderSection render, @Nullable BuiltRenderSectionData info) {
         boolean changed = render.setInfo(info);
@@ -529,12 +712,21 @@ public abstract class RenderSectionManager {
         return changed;
     }
 
-    private static List<ChunkJobResult.Success<? extends ChunkTaskOutput>> filterChunkBuildResults(ArrayList<ChunkJobResult.Success<? extends ChunkTaskOutput>> outputs) {
+    /**
+     * Drops the results of sections which have been disposed, and the results which a newer build of the same section
+     * has superseded. The time spent on superseded results is counted as wasted.
+     */
+    private List<ChunkJobResult.Success<? extends ChunkTaskOutput>> filterChunkBuildResults(ArrayList<ChunkJobResult.Success<? extends ChunkTaskOutput>> outputs) {
         var map = new Reference2ReferenceLinkedOpenHashMap<RenderSection, ChunkJobResult.Success<? extends ChunkTaskOutput>>();
 
         for (var holder : outputs) {
             var output = holder.output();
-            if (output.render.isDisposed() || output.render.getLastBuiltFrame() > output.buildTime) {
+            if (output.render.isDisposed()) {
+                continue;
+            }
+
+            if (output.render.getLastBuiltFrame() > output.buildTime) {
+                this.recordWastedBuildTime(holder);
                 continue;
             }
 
@@ -543,20 +735,42 @@ public abstract class RenderSectionManager {
 
             if (previousHolder == null || previousHolder.output().buildTime < output.buildTime) {
                 map.put(render, holder);
+
+                if (previousHolder != null) {
+                    this.recordWastedBuildTime(previousHolder);
+                }
+            } else {
+                this.recordWastedBuildTime(holder);
             }
         }
 
         return new ArrayList<>(map.values());
     }
 
+    private void recordWastedBuildTime(ChunkJobResult.Success<? extends ChunkTaskOutput> holder) {
+        // Results which were created without running a job have no execution time
+        if (holder.executionTimeNanos() > 0) {
+            this.wastedBuildTimeNanos += holder.executionTimeNanos();
+        }
+    }
+
     private ArrayList<ChunkJobResult.Success<? extends ChunkTaskOutput>> collectChunkBuildResults() {
         ArrayList<ChunkJobResult.Success<? extends ChunkTaskOutput>> results = new ArrayList<>();
         ChunkJobResult<? extends ChunkTaskOutput> result;
 
         while ((result = this.buildResults.poll()) != null) {
+            // Finished and cancelled jobs can both change when sections need to be sorted again
+            this.invalidateResortCheck();
+
             if (result instanceof ChunkJobResult.Success<? extends ChunkTaskOutput> successfulResult) {
                 this.jobMetricsTracker.collectMetrics(successfulResult);
                 results.add(successfulResult);
+            } else if (result instanceof ChunkJobResult.Cancelled<? extends ChunkTaskOutput> cancelled) {
+                if (cancelled.output() != null) {
+                    cancelled.output().delete();
+                }
+
+                this.wastedBuildTimeNanos += cancelled.executionTimeNanos();
             } else if (result instanceof ChunkJobResult.Failure<? extends ChunkTaskOutput> failure) {
                 failure.abort();
             } else {
@@ -593,8 +807,10 @@ public abstract class RenderSectionManager {
                 continue;
             }
 
+            this.cancelSupersededJob(section, type);
+
             if (task != null) {
-                var job = this.builder.scheduleTask(task, type.isImportant(), collector::onJobFinished);
+                var job = this.builder.scheduleTask(task, type, section, collector::onJobFinished);
                 collector.addSubmittedJob(job);
 
                 section.setBuildCancellationToken(job);
@@ -615,6 +831,29 @@ public abstract class RenderSectionManager {
         }
     }
 
+    /**
+     * Cancels the job previously submitted for the section if the update about to be submitted makes its result
+     * redundant. A rebuild supersedes any earlier job, while a sort only supersedes an earlier sort (as it relies on
+     * the translucency data produced by the rebuild). Jobs which have already started are left to finish, and their
+     * results are dropped on upload if a newer build of the section has been uploaded first. Jobs which have already
+     * finished are not counted, as their results are simply replaced.
+     */
+    private void cancelSupersededJob(RenderSection section, ChunkUpdateType type) {
+        if (!(section.getBuildCancellationToken() instanceof ChunkJobTyped<?, ?> previous) || previous.isCancelled()) {
+            return;
+        }
+
+        if (type.isSort() && !previous.getUpdateType().isSort()) {
+            return;
+        }
+
+        if (this.builder.cancelJob(previous)) {
+            this.supersededQueuedJobs++;
+        } else if (previous.isRunning()) {
+            this.supersededRunningJobs++;
+        }
+    }
+
     protected abstract @Nullable ChunkBuilderTask<ChunkBuildOutput> createRebuildTask(RenderSection render, int frame);
 
     public ChunkBuilderSortTask createSortTask(RenderSection render, int frame) {
@@ -712,6 +951,10 @@ public abstract class RenderSectionManager {
 
     }
 
+    protected Collection<String> getWorldDataDebugStrings() {
+        return List.of();
+    }
+
     protected void scheduleSectionForRebuild(int x, int y, int z, boolean important) {
         RenderSection section = this.sectionByPosition.get(PositionUtil.packSection(x, y, z));
 
@@ -841,18 +1084,25 @@ public abstract class RenderSectionManager {
 
         long indexUsed = 0, indexAllocated = 0;
 
+        long deviceLargestFree = 0, indexLargestFree = 0;
+        int freeSegments = 0;
+
         for (var region : this.regions.getLoadedRegions()) {
             for (var resources : region.getAllResources()) {
                 var buffer = resources.getGeometryArena();
 
                 deviceUsed += buffer.getDeviceUsedMemoryL();
                 deviceAllocated += buffer.getDeviceAllocatedMemoryL();
+                deviceLargestFree += buffer.getLargestFreeSegmentMemoryL();
+                freeSegments += buffer.getFreeSegmentCount();
 
                 var indexBuffer = resources.getIndexArena();
 
                 if (indexBuffer != null) {
                     indexUsed += indexBuffer.getDeviceUsedMemoryL();
                     indexAllocated += indexBuffer.getDeviceAllocatedMemoryL();
+                    indexLargestFree += indexBuffer.getLargestFreeSegmentMemoryL();
+                    freeSegments += indexBuffer.getFreeSegmentCount();
                     indexCount++;
                 }
 
@@ -861,6 +1111,10 @@ public abstract class RenderSectionManager {
         }
 
         list.add(String.format("G: %d/%d, I: %d/%d MiB (%d buffers)", MathUtil.toMib(deviceUsed), MathUtil.toMib(deviceAllocated), MathUtil.toMib(indexUsed), MathUtil.toMib(indexAllocated), count));
+        list.add(String.format("Fragmentation: G=%d%% I=%d%% (%d free segments)",
+                getFragmentationPercent(deviceAllocated - deviceUsed, deviceLargestFree),
+                getFragmentationPercent(indexAllocated - indexUsed, indexLargestFree),
+                freeSegments));
         list.add(String.format("Transfer Queue: %s", this.regions.getStagingBuffer().toString()));
 
         var rebuildLists = this.getCurrentRenderListManager().getRebuildLists();
@@ -871,6 +1125,21 @@ public abstract class RenderSectionManager {
                 rebuildLists.getUpdateCount(ChunkUpdateType.REBUILD),
                 rebuildLists.getUpdateCount(ChunkUpdateType.INITIAL_BUILD)
         ));
+        list.add(String.format("Superseded Jobs: Q=%d R=%d (wasted %s)",
+                this.supersededQueuedJobs,
+                this.supersededRunningJobs,
+                TimeUtil.stringifyTime(this.wastedBuildTimeNanos, TimeUnit.NANOSECONDS)
+        ));
+
+        list.addAll(this.getWorldDataDebugStrings());
+        list.add(this.sortStateMemoryTracker.getDebugString());
+        list.add(String.format("Re-sorts: Q=%d A=%d (skipped %d checks)", this.sortsScheduled, this.sortsAvoided, this.resortChecksSkipped));
+
+        var graphDebugString = this.renderListManager.getOcclusionDebugString();
+
+        if (graphDebugString != null) {
+            list.add(graphDebugString);
+        }
 
         var debugStats = renderListManager.getDebugStatistics();
 
@@ -898,6 +1167,13 @@ public abstract class RenderSectionManager {
         return list;
     }
 
+    /**
+     * {@return the percentage of the free memory in the arenas which isn't part of the largest free segment of its arena}
+     */
+    private static int getFragmentationPercent(long free, long largestFree) {
+        return free > 0 ? (int) (100 - ((largestFree * 100) / free)) : 0;
+    }
+
     private RenderListManager getCurrentRenderListManager() {
         return isInShadowPass() ? this.shadowRenderListManager : this.renderListManager;
     }
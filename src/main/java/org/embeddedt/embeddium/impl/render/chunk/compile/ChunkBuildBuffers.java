@@ -13,6 +13,7 @@ import org.embeddedt.embeddium.impl.render.chunk.data.BuiltSectionMeshParts;
 import org.embeddedt.embeddium.impl.render.chunk.terrain.TerrainRenderPass;
 import org.embeddedt.embeddium.impl.render.chunk.terrain.material.Material;
 import org.embeddedt.embeddium.impl.util.NativeBuffer;
+import org.embeddedt.embeddium.impl.util.sorting.RadixSort;
 import org.embeddedt.embeddium.impl.render.chunk.sorting.TranslucentQuadAnalyzer;
 import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexEncoder;
 
@@ -31,11 +32,18 @@ public final class ChunkBuildBuffers {
     @Getter
     private final RenderPassConfiguration<?> renderPassConfiguration;
 
+    private final RadixSort sorter;
+
     private BuiltRenderSectionData renderData;
     private int sectionIndex;
 
     public ChunkBuildBuffers(RenderPassConfiguration<?> configuration) {
+        this(configuration, new RadixSort());
+    }
+
+    public ChunkBuildBuffers(RenderPassConfiguration<?> configuration, RadixSort sorter) {
         this.renderPassConfiguration = configuration;
+        this.sorter = sorter;
     }
 
     public void init(BuiltRenderSectionData renderData, int sectionIndex) {
@@ -80,7 +88,13 @@ public final class ChunkBuildBuffers {
     public BuiltSectionMeshParts createMesh(TerrainRenderPass pass, float camX, float camY, float camZ) {
         var builder = this.builders.get(pass);
 
-        if (builder == null || builder.isEmpty()) {
+        if (builder == null) {
+            return null;
+        }
+
+        builder.flush();
+
+        if (builder.isEmpty()) {
             return null;
         }
 
@@ -129,7 +143,7 @@ public final class ChunkBuildBuffers {
             mergedIndexBuffer = new NativeBuffer(primitiveType.getIndexBufferSize(numPrimitives));
 
             // Do the initial sort now
-            primitiveType.generateSortedIndexBuffer(mergedIndexBuffer.getDirectBuffer(), numPrimitives, sortState, camX, camY, camZ);
+            primitiveType.generateSortedIndexBuffer(mergedIndexBuffer.getDirectBuffer(), numPrimitives, sortState, camX, camY, camZ, this.sorter);
         } else {
             mergedIndexBuffer = null;
         }
@@ -1,12 +1,15 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile;
 
 import org.embeddedt.embeddium.impl.render.chunk.RenderPassConfiguration;
+import org.embeddedt.embeddium.impl.util.sorting.RadixSort;
 
 public class ChunkBuildContext {
     public final ChunkBuildBuffers buffers;
+    public final RadixSort sorter;
 
     public ChunkBuildContext(RenderPassConfiguration renderPassConfiguration) {
-        this.buffers = new ChunkBuildBuffers(renderPassConfiguration);
+        this.sorter = new RadixSort();
+        this.buffers = new ChunkBuildBuffers(renderPassConfiguration, this.sorter);
     }
 
     public void cleanup() {
@@ -1,5 +1,6 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile;
 
+import it.unimi.dsi.fastutil.longs.LongArrays;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceMap;
 import org.embeddedt.embeddium.impl.render.chunk.RenderSection;
 import org.embeddedt.embeddium.impl.render.chunk.data.BuiltRenderSectionData;
@@ -15,10 +16,28 @@ public class ChunkBuildOutput extends ChunkTaskOutput {
     public final BuiltRenderSectionData info;
     public final Reference2ReferenceMap<TerrainRenderPass, BuiltSectionMeshParts> meshes;
 
+    /**
+     * The packed positions of the sections outside of the section's world slice which were read during the build.
+     */
+    public final long[] extraSections;
+
+    /**
+     * True if any of the extra sections had not been cloned, in which case the blocks in them were read as air and
+     * the section should be built again.
+     */
+    public final boolean missedExtraSections;
+
     public ChunkBuildOutput(RenderSection render, BuiltRenderSectionData info, Reference2ReferenceMap<TerrainRenderPass, BuiltSectionMeshParts> meshes, int buildTime) {
+        this(render, info, meshes, buildTime, LongArrays.EMPTY_ARRAY, false);
+    }
+
+    public ChunkBuildOutput(RenderSection render, BuiltRenderSectionData info, Reference2ReferenceMap<TerrainRenderPass, BuiltSectionMeshParts> meshes, int buildTime,
+                            long[] extraSections, boolean missedExtraSections) {
         super(render, buildTime);
         this.info = info;
         this.meshes = meshes;
+        this.extraSections = extraSections;
+        this.missedExtraSections = missedExtraSections;
 
         if (this.info != null) {
             this.info.bake();
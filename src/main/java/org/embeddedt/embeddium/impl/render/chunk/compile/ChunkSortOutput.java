@@ -10,9 +10,24 @@ public class ChunkSortOutput extends ChunkTaskOutput {
 
     public final Reference2ReferenceMap<TerrainRenderPass, SortedMesh> meshes;
 
-    public ChunkSortOutput(RenderSection render, int buildTime, Reference2ReferenceMap<TerrainRenderPass, SortedMesh> meshes) {
+    /**
+     * The camera position which the meshes were sorted for.
+     */
+    public final float cameraX, cameraY, cameraZ;
+
+    /**
+     * How far the camera can move away from the sorted position before the order of any mesh could change.
+     */
+    public final float stableCameraDistance;
+
+    public ChunkSortOutput(RenderSection render, int buildTime, Reference2ReferenceMap<TerrainRenderPass, SortedMesh> meshes,
+                           float cameraX, float cameraY, float cameraZ, float stableCameraDistance) {
         super(render, buildTime);
         this.meshes = meshes;
+        this.cameraX = cameraX;
+        this.cameraY = cameraY;
+        this.cameraZ = cameraZ;
+        this.stableCameraDistance = stableCameraDistance;
     }
 
     @Override
@@ -5,6 +5,7 @@ import org.embeddedt.embeddium.impl.model.quad.properties.ModelQuadFacing;
 import org.embeddedt.embeddium.impl.render.chunk.data.BuiltRenderSectionData;
 import org.embeddedt.embeddium.impl.render.chunk.terrain.TerrainRenderPass;
 import org.embeddedt.embeddium.impl.render.chunk.vertex.builder.ChunkMeshBufferBuilder;
+import org.embeddedt.embeddium.impl.render.chunk.vertex.builder.GreedyQuadMerger;
 import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexEncoder;
 
 import java.util.Objects;
@@ -20,8 +21,14 @@ public class BakedChunkModelBuilder implements ChunkModelBuilder {
     public BakedChunkModelBuilder(ChunkVertexEncoder encoder, int stride, TerrainRenderPass pass) {
         var vertexBuffers = new ChunkMeshBufferBuilder[ModelQuadFacing.COUNT];
 
+        // Faces can only be merged if they are not sorted, and the vertex format can repeat their textures
+        float maxTiledTextureCoord = pass.isSorted() ? 0.0f : pass.vertexType().getMaxTiledTextureCoord();
+
         for (int facing = 0; facing < ModelQuadFacing.COUNT; facing++) {
-            vertexBuffers[facing] = new ChunkMeshBufferBuilder(encoder, stride, 64 * 1024, pass.isSorted() && facing == ModelQuadFacing.UNASSIGNED.ordinal());
+            var axis = ModelQuadFacing.VALUES[facing].getAxis();
+            var merger = maxTiledTextureCoord > 0.0f && axis != null ? new GreedyQuadMerger(axis, maxTiledTextureCoord) : null;
+
+            vertexBuffers[facing] = new ChunkMeshBufferBuilder(encoder, stride, 64 * 1024, pass.isSorted() && facing == ModelQuadFacing.UNASSIGNED.ordinal(), merger);
         }
 
         this.encoder = encoder;
@@ -58,6 +65,17 @@ public class BakedChunkModelBuilder implements ChunkModelBuilder {
         }
     }
 
+    /**
+     * Writes out any faces which were held back to be merged. This must be called before the buffers are read.
+     */
+    public void flush() {
+        for (var vertexBuffer : this.vertexBuffers) {
+            if (vertexBuffer != null) {
+                vertexBuffer.flush();
+            }
+        }
+    }
+
     public boolean isEmpty() {
         for (var vertexBuffer : this.vertexBuffers) {
             if (vertexBuffer != null && !vertexBuffer.isEmpty()) {
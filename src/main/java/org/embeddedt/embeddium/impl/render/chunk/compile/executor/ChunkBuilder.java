@@ -1,10 +1,14 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile.executor;
 
+import org.embeddedt.embeddium.impl.render.chunk.AbstractSection;
+import org.embeddedt.embeddium.impl.render.chunk.ChunkUpdateType;
 import org.embeddedt.embeddium.impl.render.chunk.compile.ChunkBuildContext;
 import org.embeddedt.embeddium.impl.render.chunk.compile.tasks.ChunkBuilderTask;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.embeddedt.embeddium.impl.render.chunk.compile.GlobalChunkBuildContext;
+import org.embeddedt.embeddium.impl.util.collections.WorkStealingDeque;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,36 +32,77 @@ public class ChunkBuilder {
      * frame doing nothing. 2 seems to be a decent value, and is what Sodium 0.2 used.
      */
     private static final int TASK_QUEUE_LIMIT_PER_WORKER = 2;
+    /**
+     * The upper bound on the number of tasks per worker when the queue limit is being adjusted at runtime by the
+     * {@link ChunkBuilderLoadController}.
+     */
+    private static final int MAX_TASK_QUEUE_LIMIT_PER_WORKER = 8;
 
     private final ChunkJobQueue queue = new ChunkJobQueue();
 
     private final List<WorkerThread> threads = new ArrayList<>();
 
+    private final List<WorkStealingDeque<ChunkJobTyped<?, ?>>> workerQueues = new ArrayList<>();
+
     private final AtomicInteger busyThreadCount = new AtomicInteger();
 
+    /**
+     * The number of workers which are allowed to take jobs. Workers beyond this count stay parked until the load
+     * controller activates them again.
+     */
+    private volatile int activeThreadCount;
+
+    private volatile int taskQueueLimitPerWorker = TASK_QUEUE_LIMIT_PER_WORKER;
+
+    private final Object activationLock = new Object();
+
+    @Nullable
+    private final ChunkBuilderLoadController loadController;
+
     private final ChunkBuildContext localContext;
 
+    private final Supplier<ChunkBuildContext> contextSupplier;
+
     private final ManagedBlocker managedBlocker;
 
     public ChunkBuilder(ManagedBlocker managedBlocker, Supplier<ChunkBuildContext> contextSupplier, int requestedThreads) {
         GlobalChunkBuildContext.setMainThread();
 
+        ChunkBuilderLoadController loadController = null;
+
         if (requestedThreads >= 0) {
             int count = getThreadCount(requestedThreads);
 
-            for (int i = 0; i < count; i++) {
-                ChunkBuildContext context = contextSupplier.get();
-                WorkerRunnable worker = new WorkerRunnable(context);
+            this.activeThreadCount = count;
+
+            int maxCount = count;
 
-                WorkerThread thread = new WorkerThread(worker, "Chunk Render Task Executor #" + i, context);
-                thread.setPriority(Math.max(0, Thread.NORM_PRIORITY - 2));
-                thread.start();
+            if (requestedThreads == 0) {
+                // When the thread count is chosen automatically, the load controller can bring extra workers online
+                // if the machine has capacity to spare
+                maxCount = Math.max(count, getMaxAdaptiveThreadCount());
+                var bounds = new ChunkBuilderLoadController.Bounds(1, maxCount, 1, MAX_TASK_QUEUE_LIMIT_PER_WORKER);
 
-                this.threads.add(thread);
+                loadController = new ChunkBuilderLoadController(bounds, count, TASK_QUEUE_LIMIT_PER_WORKER);
+            }
+
+            // The deques are cheap, so one is created for every worker which may ever be started, which keeps the
+            // list fixed while the workers are stealing from it
+            for (int i = 0; i < maxCount; i++) {
+                this.workerQueues.add(new WorkStealingDeque<>());
             }
         }
 
-        LOGGER.info("Started {} worker threads", this.threads.size());
+        this.loadController = loadController;
+        this.contextSupplier = contextSupplier;
+
+        this.startWorkers(this.activeThreadCount);
+
+        if (loadController != null) {
+            LOGGER.info("Started {} worker threads (up to {} may be started)", this.threads.size(), this.workerQueues.size());
+        } else {
+            LOGGER.info("Started {} worker threads", this.threads.size());
+        }
 
         this.localContext = contextSupplier.get();
 
@@ -69,7 +114,55 @@ public class ChunkBuilder {
      * spawn more tasks than the budget allows, it will block until resources become available.
      */
     public int getSchedulingBudget() {
-        return Math.max(0, (Math.max(1, this.threads.size()) * TASK_QUEUE_LIMIT_PER_WORKER) - this.queue.size());
+        return Math.max(0, (Math.max(1, this.activeThreadCount) * this.taskQueueLimitPerWorker) - this.queue.size());
+    }
+
+    /**
+     * Feeds the state of the last frame into the load controller, which may change the number of active workers and
+     * the scheduling budget. Does nothing if the worker count was explicitly configured.
+     *
+     * @param frameTimeNanos       The time taken by the last frame
+     * @param targetFrameTimeNanos The frame time which the game is trying to achieve
+     * @param backlogged           Whether there were more sections waiting to be built than the budget allowed
+     * @param metrics              The metrics of recently completed jobs
+     */
+    public void updateLoad(long frameTimeNanos, long targetFrameTimeNanos, boolean backlogged, ChunkJobMetricsTracker metrics) {
+        var controller = this.loadController;
+
+        if (controller == null || !this.queue.isRunning()) {
+            return;
+        }
+
+        boolean changed = controller.onFrame(frameTimeNanos, targetFrameTimeNanos, this.busyThreadCount.get(), backlogged,
+                metrics.getJobsCompletedInLastTimeInterval(), metrics.getAverageJobTimeInLastTimeInterval());
+
+        if (changed) {
+            this.taskQueueLimitPerWorker = controller.getJobsPerWorker();
+
+            synchronized (this.activationLock) {
+                this.activeThreadCount = controller.getActiveWorkers();
+                this.activationLock.notifyAll();
+            }
+
+            this.startWorkers(this.activeThreadCount);
+        }
+    }
+
+    /**
+     * Starts new workers until there are at least the given number. Workers, and the build contexts they own, are only
+     * created once the load controller first needs them, and are parked rather than stopped when it scales back down.
+     */
+    private void startWorkers(int count) {
+        for (int i = this.threads.size(); i < count; i++) {
+            ChunkBuildContext context = this.contextSupplier.get();
+            WorkerRunnable worker = new WorkerRunnable(context, i);
+
+            WorkerThread thread = new WorkerThread(worker, "Chunk Render Task Executor #" + i, context);
+            thread.setPriority(Math.max(0, Thread.NORM_PRIORITY - 2));
+            thread.start();
+
+            this.threads.add(thread);
+        }
     }
 
     /**
@@ -92,7 +185,25 @@ public class ChunkBuilder {
             job.setCancelled();
         }
 
+        // Wake up any parked workers so that they can exit
+        synchronized (this.activationLock) {
+            this.activationLock.notifyAll();
+        }
+
         this.shutdownThreads();
+
+        // Jobs which were moved into a worker's deque but never claimed will not run anymore
+        for (var workerQueue : this.workerQueues) {
+            ChunkJobTyped<?, ?> job;
+
+            while ((job = workerQueue.pop()) != null) {
+                if (this.queue.tryClaim(job)) {
+                    job.setCancelled();
+                }
+            }
+        }
+
+        this.workerQueues.clear();
     }
 
     private void shutdownThreads() {
@@ -108,20 +219,42 @@ public class ChunkBuilder {
 
     public <TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT> ChunkJobTyped<TASK, OUTPUT> scheduleTask(TASK task, boolean important,
                                                                                                     Consumer<ChunkJobResult<OUTPUT>> consumer)
+    {
+        return this.scheduleTask(task, important ? ChunkUpdateType.IMPORTANT_REBUILD : ChunkUpdateType.REBUILD, null, consumer);
+    }
+
+    /**
+     * Schedules a task for execution on the worker threads. Tasks are picked up in order of priority, which is
+     * determined by the update type and the distance of the given section from the camera.
+     *
+     * @param section The section the task operates on, or null if the task should not be prioritized by distance
+     */
+    public <TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT> ChunkJobTyped<TASK, OUTPUT> scheduleTask(TASK task, ChunkUpdateType type,
+                                                                                                    @Nullable AbstractSection section,
+                                                                                                    Consumer<ChunkJobResult<OUTPUT>> consumer)
     {
         Objects.requireNonNull(task, "Task must be non-null");
+        Objects.requireNonNull(type, "Update type must be non-null");
 
         if (!this.queue.isRunning()) {
             throw new IllegalStateException("Executor is stopped");
         }
 
-        var job = new ChunkJobTyped<>(task, consumer);
+        var job = new ChunkJobTyped<>(task, type, section, consumer);
 
-        this.queue.add(job, important);
+        this.queue.add(job);
 
         return job;
     }
 
+    /**
+     * Updates the camera position used to prioritize queued tasks. Tasks that were submitted before the camera moved
+     * are re-prioritized against the new position.
+     */
+    public void setCameraPosition(int sectionX, int sectionY, int sectionZ) {
+        this.queue.setCameraPosition(sectionX, sectionY, sectionZ);
+    }
+
     /**
      * Returns the "optimal" number of threads to be used for chunk build tasks. This will always return at least one
      * thread.
@@ -141,6 +274,14 @@ public class ChunkBuilder {
         return requested == 0 ? getOptimalThreadCount() : Math.min(requested, getMaxThreadCount());
     }
 
+    /**
+     * Returns the maximum number of threads which the load controller may activate. One core is always left for the
+     * render thread.
+     */
+    private static int getMaxAdaptiveThreadCount() {
+        return Math.max(1, getMaxThreadCount() - 1);
+    }
+
     public static int getMaxThreadCount() {
         int totalCores = Runtime.getRuntime().availableProcessors();
         long memoryMb = Runtime.getRuntime().maxMemory() / (1024L * 1024L);
@@ -150,6 +291,23 @@ public class ChunkBuilder {
         return Math.min(totalCores, maxBuilders);
     }
 
+    /**
+     * Cancels the given job if no thread has picked it up yet, removing it from the queue. Jobs which are already
+     * running are left to finish, as cancelling them part way through could keep a section which changes faster than
+     * it can be built from ever receiving a new mesh.
+     *
+     * @return True if the job was removed before it started executing, false if it may already be running
+     */
+    public boolean cancelJob(ChunkJob job) {
+        if (!this.queue.stealJob(job)) {
+            return false;
+        }
+
+        job.setCancelled();
+
+        return true;
+    }
+
     public void tryStealTask(ChunkJob job) {
         if (!this.queue.stealJob(job)) {
             return;
@@ -176,8 +334,9 @@ public class ChunkBuilder {
             return;
         }
 
-        while (!this.queue.isEmpty()) {
-            var job = Objects.requireNonNull(this.queue.pollJob());
+        ChunkJob job;
+
+        while ((job = this.queue.pollJob()) != null) {
             executeJobWithLocalContext(job);
         }
     }
@@ -198,6 +357,10 @@ public class ChunkBuilder {
         return this.threads.size();
     }
 
+    public int getActiveThreadCount() {
+        return Math.min(this.activeThreadCount, this.threads.size());
+    }
+
     public void managedBlock(BooleanSupplier isDone) {
         this.managedBlocker.managedBlock(isDone);
     }
@@ -221,23 +384,40 @@ public class ChunkBuilder {
         // caches between different CPU cores
         private final ChunkBuildContext context;
 
-        public WorkerRunnable(ChunkBuildContext context) {
+        private final int workerIndex;
+
+        public WorkerRunnable(ChunkBuildContext context, int workerIndex) {
             this.context = context;
+            this.workerIndex = workerIndex;
         }
 
         @Override
         public void run() {
+            var localQueue = ChunkBuilder.this.workerQueues.get(this.workerIndex);
+
             // Run until the chunk builder shuts down
             while (ChunkBuilder.this.queue.isRunning()) {
-                ChunkJob job;
+                if (this.workerIndex >= ChunkBuilder.this.activeThreadCount) {
+                    // Any jobs left in our deque will be stolen by the active workers, which may need to be woken up
+                    if (!localQueue.isEmpty()) {
+                        ChunkBuilder.this.queue.signalStealableJobs();
+                    }
 
-                try {
-                    job = ChunkBuilder.this.queue.waitForNextJob();
-                } catch (InterruptedException ignored) {
+                    this.awaitActivation();
                     continue;
                 }
 
+                // Read before searching, so that jobs which become stealable during the search are not missed
+                int stealableVersion = ChunkBuilder.this.queue.getStealableVersion();
+
+                ChunkJob job = this.findJob(localQueue);
+
                 if (job == null) {
+                    try {
+                        ChunkBuilder.this.queue.awaitJobs(stealableVersion);
+                    } catch (InterruptedException ignored) {
+                    }
+
                     // might mean we are not running anymore... go around and check isRunning
                     continue;
                 }
@@ -253,6 +433,57 @@ public class ChunkBuilder {
                 }
             }
         }
+
+        /**
+         * Finds the next job for this worker to execute, first checking its own deque, then taking a new batch from
+         * the global queue, and finally trying to steal from the other workers.
+         */
+        @Nullable
+        private ChunkJob findJob(WorkStealingDeque<ChunkJobTyped<?, ?>> localQueue) {
+            var queue = ChunkBuilder.this.queue;
+
+            do {
+                ChunkJobTyped<?, ?> job;
+
+                while ((job = localQueue.pop()) != null) {
+                    if (queue.tryClaim(job)) {
+                        return job;
+                    }
+                }
+            } while (queue.drainTo(localQueue, ChunkBuilder.this.activeThreadCount) > 0);
+
+            var workerQueues = ChunkBuilder.this.workerQueues;
+            int count = workerQueues.size();
+
+            for (int i = 1; i < count; i++) {
+                var victim = workerQueues.get((this.workerIndex + i) % count);
+
+                // A failed steal may only mean that another thread took the same job, so keep going until the deque
+                // is empty, as this worker may not be woken again for the jobs which are left
+                while (!victim.isEmpty()) {
+                    ChunkJobTyped<?, ?> job = victim.steal();
+
+                    if (job != null && queue.tryClaim(job)) {
+                        return job;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        private void awaitActivation() {
+            var lock = ChunkBuilder.this.activationLock;
+
+            synchronized (lock) {
+                while (ChunkBuilder.this.queue.isRunning() && this.workerIndex >= ChunkBuilder.this.activeThreadCount) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+            }
+        }
     }
 
     public interface ManagedBlocker {
@@ -0,0 +1,171 @@
+package org.embeddedt.embeddium.impl.render.chunk.compile.executor;
+
+/**
+ * A feedback controller which decides how many chunk builder workers should be active, and how many jobs should be
+ * queued per active worker, based on the recent job latency, job throughput and frame time.
+ *
+ * <p>The controller is evaluated once per {@link #EVALUATION_INTERVAL_NANOS} worth of frames. Each evaluation may
+ * move the worker count by one step:</p>
+ * <ul>
+ *     <li>If frames are taking noticeably longer than the target, a worker is removed.</li>
+ *     <li>If work is backlogged, the active workers are saturated and there is frame time to spare, a worker is
+ *     added. If adding the previous worker did not improve throughput, that change is undone instead and the
+ *     controller holds off on growing for a while.</li>
+ *     <li>If the builder is mostly idle, the worker count drifts back towards its initial value.</li>
+ * </ul>
+ *
+ * <p>The number of jobs queued per worker is sized so that a worker does not run out of work before the next frame
+ * can submit more, using the ratio of frame time to average job latency.</p>
+ *
+ * <p>This class holds no references to global state or clocks, so that it can be driven from recorded traces.</p>
+ */
+public class ChunkBuilderLoadController {
+    public static final long EVALUATION_INTERVAL_NANOS = ChunkJobMetricsTracker.OBSERVATION_COUNT_TIME;
+
+    /**
+     * Frames this much slower than the target (as a fraction of the target) are considered to be overloaded.
+     */
+    private static final double OVERLOAD_HEADROOM = -0.1;
+
+    /**
+     * Frames must be at least this much faster than the target before more workers will be added.
+     */
+    private static final double SPARE_HEADROOM = 0.15;
+
+    private static final double HIGH_UTILIZATION = 0.75;
+    private static final double LOW_UTILIZATION = 0.25;
+
+    /**
+     * The minimum relative increase in throughput that a newly added worker must provide to be kept.
+     */
+    private static final double MIN_SCALING_GAIN = 1.05;
+
+    /**
+     * The number of evaluations to wait after undoing a worker increase before trying again.
+     */
+    private static final int SCALING_FAILURE_HOLD = 8;
+
+    public record Bounds(int minWorkers, int maxWorkers, int minJobsPerWorker, int maxJobsPerWorker) {
+        public Bounds {
+            if (minWorkers < 1 || maxWorkers < minWorkers) {
+                throw new IllegalArgumentException("Invalid worker bounds: " + minWorkers + ".." + maxWorkers);
+            }
+
+            if (minJobsPerWorker < 1 || maxJobsPerWorker < minJobsPerWorker) {
+                throw new IllegalArgumentException("Invalid job bounds: " + minJobsPerWorker + ".." + maxJobsPerWorker);
+            }
+        }
+    }
+
+    private final Bounds bounds;
+    private final int initialWorkers;
+
+    private int activeWorkers;
+    private int jobsPerWorker;
+
+    // Accumulated over the current evaluation window
+    private long windowFrameTime;
+    private int windowFrames;
+    private long windowBusyWorkers;
+    private boolean windowBacklogged;
+
+    private int lastWorkerChange;
+    private double lastThroughput;
+    private int holdEvaluations;
+
+    public ChunkBuilderLoadController(Bounds bounds, int initialWorkers, int initialJobsPerWorker) {
+        this.bounds = bounds;
+        this.initialWorkers = clamp(initialWorkers, bounds.minWorkers(), bounds.maxWorkers());
+        this.activeWorkers = this.initialWorkers;
+        this.jobsPerWorker = clamp(initialJobsPerWorker, bounds.minJobsPerWorker(), bounds.maxJobsPerWorker());
+    }
+
+    /**
+     * Records the state of the chunk builder for a single frame, and re-evaluates the worker and job limits if
+     * enough frames have been collected.
+     *
+     * @param frameTimeNanos         The time taken by the last frame
+     * @param targetFrameTimeNanos   The frame time which the game is trying to achieve
+     * @param busyWorkers            The number of workers which are currently executing a job
+     * @param backlogged             Whether there was more work available than the scheduling budget allowed
+     * @param jobsCompletedPerSecond The number of jobs completed over the last second
+     * @param averageJobLatencyNanos The average execution time of recently completed jobs, or 0 if unknown
+     * @return True if the limits were changed
+     */
+    public boolean onFrame(long frameTimeNanos, long targetFrameTimeNanos, int busyWorkers, boolean backlogged,
+                           int jobsCompletedPerSecond, long averageJobLatencyNanos) {
+        this.windowFrameTime += frameTimeNanos;
+        this.windowFrames++;
+        this.windowBusyWorkers += busyWorkers;
+        this.windowBacklogged |= backlogged;
+
+        if (this.windowFrameTime < EVALUATION_INTERVAL_NANOS) {
+            return false;
+        }
+
+        boolean changed = this.evaluate(targetFrameTimeNanos, jobsCompletedPerSecond, averageJobLatencyNanos);
+
+        this.windowFrameTime = 0;
+        this.windowFrames = 0;
+        this.windowBusyWorkers = 0;
+        this.windowBacklogged = false;
+
+        return changed;
+    }
+
+    private boolean evaluate(long targetFrameTimeNanos, int throughput, long averageJobLatencyNanos) {
+        double averageFrameTime = (double) this.windowFrameTime / this.windowFrames;
+        double headroom = targetFrameTimeNanos > 0 ? 1.0 - (averageFrameTime / targetFrameTimeNanos) : 0.0;
+        double utilization = (double) this.windowBusyWorkers / ((long) this.windowFrames * this.activeWorkers);
+
+        int prevWorkers = this.activeWorkers;
+        int prevJobsPerWorker = this.jobsPerWorker;
+
+        int workerChange = 0;
+
+        if (headroom < OVERLOAD_HEADROOM) {
+            workerChange = -1;
+        } else if (this.holdEvaluations > 0) {
+            this.holdEvaluations--;
+        } else if (this.windowBacklogged && utilization > HIGH_UTILIZATION && headroom > SPARE_HEADROOM) {
+            if (this.lastWorkerChange > 0 && throughput < this.lastThroughput * MIN_SCALING_GAIN) {
+                // The last worker we added didn't help, so the machine is likely out of cores or memory bandwidth
+                workerChange = -1;
+                this.holdEvaluations = SCALING_FAILURE_HOLD;
+            } else {
+                workerChange = 1;
+            }
+        } else if (!this.windowBacklogged && utilization < LOW_UTILIZATION && this.activeWorkers > this.initialWorkers) {
+            workerChange = -1;
+        }
+
+        this.activeWorkers = clamp(this.activeWorkers + workerChange, this.bounds.minWorkers(), this.bounds.maxWorkers());
+        this.lastWorkerChange = this.activeWorkers - prevWorkers;
+        this.lastThroughput = throughput;
+
+        if (averageJobLatencyNanos > 0) {
+            // Queue enough jobs that a worker can keep busy until the next frame submits more, plus one spare
+            int desired = (int) Math.ceil(averageFrameTime / averageJobLatencyNanos) + 1;
+
+            if (headroom < OVERLOAD_HEADROOM) {
+                desired = Math.min(desired, this.jobsPerWorker - 1);
+            }
+
+            this.jobsPerWorker = clamp(desired, this.bounds.minJobsPerWorker(), this.bounds.maxJobsPerWorker());
+        }
+
+        return prevWorkers != this.activeWorkers || prevJobsPerWorker != this.jobsPerWorker;
+    }
+
+    public int getActiveWorkers() {
+        return this.activeWorkers;
+    }
+
+    public int getJobsPerWorker() {
+        return this.jobsPerWorker;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -35,6 +35,9 @@ public class ChunkJobMetricsTracker {
         private int observationsInLastTimeInterval;
         private int observationsInCurrentTimeInterval;
 
+        private long observationSumInLastTimeInterval;
+        private long observationSumInCurrentTimeInterval;
+
         public void collect(long observation) {
             if (observations.size() < MAX_OBSERVATIONS) {
                 observations.add(observation);
@@ -45,12 +48,17 @@ public class ChunkJobMetricsTracker {
                 }
             }
             observationsInCurrentTimeInterval++;
+            observationSumInCurrentTimeInterval += observation;
         }
 
         public int getObservationsInLastTimeInterval() {
             return this.observationsInLastTimeInterval;
         }
 
+        public long getObservationSumInLastTimeInterval() {
+            return this.observationSumInLastTimeInterval;
+        }
+
         public MetricStats getStats() {
             int count = observations.size();
             if (count == 0) {
@@ -80,6 +88,8 @@ public class ChunkJobMetricsTracker {
             for (var data : metricsByTask.values()) {
                 data.observationsInLastTimeInterval = data.observationsInCurrentTimeInterval;
                 data.observationsInCurrentTimeInterval = 0;
+                data.observationSumInLastTimeInterval = data.observationSumInCurrentTimeInterval;
+                data.observationSumInCurrentTimeInterval = 0;
             }
             lastTimeIntervalFlip = time;
         }
@@ -93,6 +103,31 @@ public class ChunkJobMetricsTracker {
         data.collect(successfulResult.executionTimeNanos());
     }
 
+    /**
+     * {@return the number of jobs of any type completed in the last time interval}
+     */
+    public int getJobsCompletedInLastTimeInterval() {
+        int count = 0;
+        for (var data : metricsByTask.values()) {
+            count += data.observationsInLastTimeInterval;
+        }
+        return count;
+    }
+
+    /**
+     * {@return the average execution time of jobs of any type completed in the last time interval, or 0 if no jobs
+     * were completed}
+     */
+    public long getAverageJobTimeInLastTimeInterval() {
+        int count = 0;
+        long sum = 0;
+        for (var data : metricsByTask.values()) {
+            count += data.observationsInLastTimeInterval;
+            sum += data.observationSumInLastTimeInterval;
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
     public Reference2ReferenceMap<Class<? extends ChunkTaskOutput>, MetricsData> getMetrics() {
         return Reference2ReferenceMaps.unmodifiable(metricsByTask);
     }
@@ -1,102 +1,422 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile.executor;
 
+import org.embeddedt.embeddium.impl.util.collections.WorkStealingDeque;
 import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * The global injection queue for jobs submitted to the chunk builder. Worker threads move small batches of jobs from
+ * here into their own {@link WorkStealingDeque}, and steal from each other when both are empty.
+ *
+ * <p>Jobs are kept in a binary heap rather than in submission order. Important jobs always come first, and within
+ * each group jobs are ordered by a score made up of their distance from the camera (in sections), a penalty for
+ * the kind of update being performed, and a bonus for the time they have spent waiting. The waiting bonus grows at
+ * the same rate for every job, so it can be folded into a fixed per-job score based on the submission time, and
+ * only changes to the camera position require the heap to be rebuilt.</p>
+ *
+ * <p>Since a job may be referenced by both a worker deque and the render thread (see
+ * {@link ChunkBuilder#tryStealTask(ChunkJob)}), every job must be claimed through this queue before it is executed.
+ * The queue tracks the number of jobs which have been submitted but not yet claimed.</p>
+ */
 class ChunkJobQueue {
-    private final ConcurrentLinkedDeque<ChunkJob> jobs = new ConcurrentLinkedDeque<>();
+    /**
+     * The number of sections of camera distance which are forgiven for every second a job spends waiting. This
+     * prevents far away jobs from being starved forever while the camera keeps generating work nearby.
+     */
+    private static final double AGING_SECTIONS_PER_SECOND = 8.0;
+
+    /**
+     * The extra distance (in sections) applied to sort jobs. Sections waiting on a sort already have visible
+     * geometry, so meshes which have not been built yet should generally win.
+     */
+    private static final double SORT_PENALTY = 2.0;
+
+    /**
+     * The maximum number of jobs a worker will move into its local deque at once. Jobs in a local deque are no longer
+     * re-prioritized when the camera moves, so this is kept small.
+     */
+    private static final int MAX_BATCH_SIZE = 4;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+
+    private ChunkJobTyped<?, ?>[] heap = new ChunkJobTyped[64];
+    private volatile int size;
+
+    private final AtomicInteger unclaimedJobs = new AtomicInteger();
+
+    // Incremented whenever jobs become available to steal from a worker's deque, so that idle workers can tell whether
+    // anything has changed since they last looked
+    private volatile int stealableVersion;
+
+    private volatile boolean isRunning = true;
 
-    private final Semaphore semaphore = new Semaphore(0);
+    private final long epoch = System.nanoTime();
 
-    private final AtomicBoolean isRunning = new AtomicBoolean(true);
+    private int cameraX, cameraY, cameraZ;
 
     public boolean isRunning() {
-        return this.isRunning.get();
+        return this.isRunning;
     }
 
-    public void add(ChunkJob job, boolean important) {
-        if (!this.isRunning()) {
-            throw new IllegalStateException("Queue is no longer running");
-        }
+    public void add(ChunkJobTyped<?, ?> job) {
+        this.lock.lock();
+
+        try {
+            if (!this.isRunning) {
+                throw new IllegalStateException("Queue is no longer running");
+            }
+
+            job.priority = this.computePriority(job);
+
+            int index = this.size;
+
+            if (index == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap, index * 2);
+            }
 
-        if (important) {
-            this.jobs.addFirst(job);
-        } else {
-            this.jobs.addLast(job);
+            this.size = index + 1;
+            this.siftUp(index, job);
+
+            this.unclaimedJobs.incrementAndGet();
+            this.notEmpty.signal();
+        } finally {
+            this.lock.unlock();
         }
+    }
+
+    /**
+     * Updates the camera position used to prioritize jobs. If the camera has entered a different section, the
+     * priority of every queued job is recomputed.
+     */
+    public void setCameraPosition(int sectionX, int sectionY, int sectionZ) {
+        this.lock.lock();
+
+        try {
+            if (this.cameraX == sectionX && this.cameraY == sectionY && this.cameraZ == sectionZ) {
+                return;
+            }
+
+            this.cameraX = sectionX;
+            this.cameraY = sectionY;
+            this.cameraZ = sectionZ;
+
+            var heap = this.heap;
+            int size = this.size;
 
-        this.semaphore.release(1);
+            for (int i = 0; i < size; i++) {
+                heap[i].priority = this.computePriority(heap[i]);
+            }
+
+            // Floyd's heap construction, which is linear in the number of jobs
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                this.siftDown(i, heap[i]);
+            }
+        } finally {
+            this.lock.unlock();
+        }
     }
 
+    /**
+     * Removes and claims the job with the highest priority.
+     */
     @Nullable
     public ChunkJob pollJob() {
-        if (this.isRunning() && this.semaphore.tryAcquire()) {
-            return this.getNextTask();
-        } else {
+        this.lock.lock();
+
+        try {
+            while (this.isRunning && this.size > 0) {
+                var job = this.removeAt(0);
+
+                if (this.tryClaim(job)) {
+                    return job;
+                }
+            }
+
             return null;
+        } finally {
+            this.lock.unlock();
         }
     }
 
-    @Nullable
-    public ChunkJob waitForNextJob() throws InterruptedException {
-        if (!this.isRunning()) {
-            return null;
+    /**
+     * Moves a batch of the highest priority jobs into the given deque. The jobs are not claimed, so they may still be
+     * stolen by other threads. The job with the highest priority is pushed last, so that it is the first job to be
+     * popped by the owner of the deque.
+     *
+     * @param parallelism The number of workers sharing the queue, used to size the batch fairly
+     * @return The number of jobs that were moved
+     */
+    public int drainTo(WorkStealingDeque<ChunkJobTyped<?, ?>> deque, int parallelism) {
+        if (this.size == 0) {
+            return 0;
         }
 
-        this.semaphore.acquire();
+        this.lock.lock();
+
+        try {
+            // Another worker may have emptied the queue since it was checked above
+            if (!this.isRunning || this.size == 0) {
+                return 0;
+            }
+
+            int count = Math.max(1, Math.min(this.size / Math.max(1, parallelism), MAX_BATCH_SIZE));
 
-        return this.getNextTask();
+            var batch = new ChunkJobTyped<?, ?>[count];
+
+            for (int i = 0; i < count; i++) {
+                batch[i] = this.removeAt(0);
+            }
+
+            for (int i = count - 1; i >= 0; i--) {
+                deque.push(batch[i]);
+            }
+
+            // The caller takes the first job itself, and the rest are left for idle workers to steal
+            if (count > 1) {
+                this.stealableVersion++;
+
+                for (int i = 1; i < count; i++) {
+                    this.notEmpty.signal();
+                }
+            }
+
+            return count;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public boolean stealJob(ChunkJob job) {
-        if (!this.semaphore.tryAcquire()) {
-            return false;
+    /**
+     * Blocks the calling worker until there may be work available, either in the global queue or in the deque of
+     * another worker.
+     *
+     * @param stealableVersion The value of {@link #getStealableVersion()} from before the caller last looked for jobs
+     *                         to steal. If jobs have become stealable since then, this returns immediately.
+     */
+    public void awaitJobs(int stealableVersion) throws InterruptedException {
+        this.lock.lockInterruptibly();
+
+        try {
+            if (!this.isRunning || this.size > 0 || this.stealableVersion != stealableVersion) {
+                return;
+            }
+
+            this.notEmpty.await();
+        } finally {
+            this.lock.unlock();
         }
+    }
 
-        var success = this.jobs.remove(job);
+    /**
+     * Wakes every idle worker so that it looks for jobs to steal again. This must be called when jobs are left in the
+     * deque of a worker which will not run them itself.
+     */
+    public void signalStealableJobs() {
+        this.lock.lock();
 
-        if (!success) {
-            // If we didn't manage to actually steal the task, then we need to release the permit which we did steal
-            this.semaphore.release(1);
+        try {
+            this.stealableVersion++;
+            this.notEmpty.signalAll();
+        } finally {
+            this.lock.unlock();
         }
+    }
 
-        return success;
+    public int getStealableVersion() {
+        return this.stealableVersion;
     }
 
-    @Nullable
-    private ChunkJob getNextTask() {
-        return this.jobs.poll();
+    /**
+     * Attempts to take ownership of executing the given job. This will fail if another thread has already claimed it.
+     */
+    public boolean tryClaim(ChunkJobTyped<?, ?> job) {
+        if (!job.tryClaim()) {
+            return false;
+        }
+
+        this.unclaimedJobs.decrementAndGet();
+
+        return true;
     }
 
+    /**
+     * Claims the given job so that it can be executed by the calling thread, removing it from the global queue if it
+     * has not yet been picked up by a worker.
+     */
+    public boolean stealJob(ChunkJob job) {
+        if (!(job instanceof ChunkJobTyped<?, ?> typedJob)) {
+            return false;
+        }
+
+        this.lock.lock();
+
+        try {
+            if (!this.isRunning || !this.tryClaim(typedJob)) {
+                return false;
+            }
+
+            int index = typedJob.queueIndex;
+
+            if (index >= 0 && index < this.size && this.heap[index] == typedJob) {
+                this.removeAt(index);
+            }
+
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
 
     public Collection<ChunkJob> shutdown() {
         var list = new ArrayDeque<ChunkJob>();
 
-        this.isRunning.set(false);
+        this.lock.lock();
+
+        try {
+            this.isRunning = false;
+
+            for (int i = 0; i < this.size; i++) {
+                var job = this.heap[i];
+                job.queueIndex = -1;
 
-        while (this.semaphore.tryAcquire()) {
-            var task = this.jobs.poll();
+                if (this.tryClaim(job)) {
+                    list.add(job);
+                }
 
-            if (task != null) {
-                list.add(task);
+                this.heap[i] = null;
             }
-        }
 
-        // force the worker threads to wake up and exit
-        this.semaphore.release(Runtime.getRuntime().availableProcessors());
+            this.size = 0;
+
+            // force the worker threads to wake up and exit
+            this.notEmpty.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
 
         return list;
     }
 
+    /**
+     * {@return the number of jobs which have been submitted but not yet claimed by any thread}
+     */
     public int size() {
-        return this.semaphore.availablePermits();
+        return this.unclaimedJobs.get();
     }
 
     public boolean isEmpty() {
         return this.size() == 0;
     }
+
+    private double computePriority(ChunkJobTyped<?, ?> job) {
+        double priority = 0.0;
+
+        if (job.hasPosition) {
+            int dx = job.sectionX - this.cameraX;
+            int dy = job.sectionY - this.cameraY;
+            int dz = job.sectionZ - this.cameraZ;
+
+            priority += Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
+        }
+
+        if (job.type.isSort()) {
+            priority += SORT_PENALTY;
+        }
+
+        // Jobs submitted later are penalized by the amount of aging that earlier jobs have already received
+        double submittedSeconds = (double) (job.submitTime - this.epoch) / TimeUnit.SECONDS.toNanos(1);
+        priority += submittedSeconds * AGING_SECTIONS_PER_SECOND;
+
+        return priority;
+    }
+
+    private static boolean isBefore(ChunkJobTyped<?, ?> a, ChunkJobTyped<?, ?> b) {
+        boolean aImportant = a.type.isImportant();
+        boolean bImportant = b.type.isImportant();
+
+        if (aImportant != bImportant) {
+            return aImportant;
+        }
+
+        return a.priority < b.priority;
+    }
+
+    private ChunkJobTyped<?, ?> removeAt(int index) {
+        var heap = this.heap;
+        var job = heap[index];
+
+        int last = this.size - 1;
+        var tail = heap[last];
+        heap[last] = null;
+        this.size = last;
+
+        if (index != last) {
+            this.siftDown(index, tail);
+
+            if (heap[index] == tail) {
+                this.siftUp(index, tail);
+            }
+        }
+
+        job.queueIndex = -1;
+
+        return job;
+    }
+
+    private void siftUp(int index, ChunkJobTyped<?, ?> job) {
+        var heap = this.heap;
+
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            var parent = heap[parentIndex];
+
+            if (!isBefore(job, parent)) {
+                break;
+            }
+
+            heap[index] = parent;
+            parent.queueIndex = index;
+            index = parentIndex;
+        }
+
+        heap[index] = job;
+        job.queueIndex = index;
+    }
+
+    private void siftDown(int index, ChunkJobTyped<?, ?> job) {
+        var heap = this.heap;
+        int size = this.size;
+        int half = size >>> 1;
+
+        while (index < half) {
+            int childIndex = (index << 1) + 1;
+            var child = heap[childIndex];
+
+            int rightIndex = childIndex + 1;
+
+            if (rightIndex < size && isBefore(heap[rightIndex], child)) {
+                childIndex = rightIndex;
+                child = heap[rightIndex];
+            }
+
+            if (!isBefore(child, job)) {
+                break;
+            }
+
+            heap[index] = child;
+            child.queueIndex = index;
+            index = childIndex;
+        }
+
+        heap[index] = job;
+        job.queueIndex = index;
+    }
 }
@@ -1,12 +1,22 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile.executor;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.Objects;
 
-public sealed interface ChunkJobResult<OUTPUT> permits ChunkJobResult.Success, ChunkJobResult.Failure {
+public sealed interface ChunkJobResult<OUTPUT> permits ChunkJobResult.Success, ChunkJobResult.Failure, ChunkJobResult.Cancelled {
     record Success<OUTPUT>(OUTPUT output, long executionTimeNanos) implements ChunkJobResult<OUTPUT> {
 
     }
 
+    /**
+     * Returned when a job was cancelled after it had already started executing. The output (if the job managed to
+     * produce one) must not be used, but still needs to be deleted by the receiver.
+     */
+    record Cancelled<OUTPUT>(@Nullable OUTPUT output, long executionTimeNanos) implements ChunkJobResult<OUTPUT> {
+
+    }
+
     record Failure<OUTPUT>(Throwable throwable) implements ChunkJobResult<OUTPUT> {
         public Failure {
             Objects.requireNonNull(throwable);
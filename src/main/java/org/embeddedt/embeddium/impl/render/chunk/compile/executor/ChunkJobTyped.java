@@ -1,8 +1,13 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile.executor;
 
+import org.embeddedt.embeddium.impl.render.chunk.AbstractSection;
+import org.embeddedt.embeddium.impl.render.chunk.ChunkUpdateType;
 import org.embeddedt.embeddium.impl.render.chunk.compile.ChunkBuildContext;
 import org.embeddedt.embeddium.impl.render.chunk.compile.tasks.ChunkBuilderTask;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 public class ChunkJobTyped<TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT>
@@ -13,10 +18,38 @@ public class ChunkJobTyped<TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT>
 
     private volatile boolean cancelled;
     private volatile boolean started;
+    private volatile boolean finished;
+
+    // Scheduling state, used by ChunkJobQueue to prioritize the job
+    final ChunkUpdateType type;
+    final boolean hasPosition;
+    final int sectionX, sectionY, sectionZ;
+    final long submitTime = System.nanoTime();
+
+    // Guarded by the lock of the queue which holds the job
+    double priority;
+    int queueIndex = -1;
+
+    // Set once a thread has taken ownership of executing the job. Jobs may be referenced from more than one queue
+    // at a time, so this is what guarantees that they only run once.
+    private final AtomicBoolean claimed = new AtomicBoolean();
 
-    ChunkJobTyped(TASK task, Consumer<ChunkJobResult<OUTPUT>> consumer) {
+    ChunkJobTyped(TASK task, ChunkUpdateType type, @Nullable AbstractSection section, Consumer<ChunkJobResult<OUTPUT>> consumer) {
         this.task = task;
+        this.type = type;
         this.consumer = consumer;
+
+        if (section != null) {
+            this.hasPosition = true;
+            this.sectionX = section.getChunkX();
+            this.sectionY = section.getChunkY();
+            this.sectionZ = section.getChunkZ();
+        } else {
+            this.hasPosition = false;
+            this.sectionX = 0;
+            this.sectionY = 0;
+            this.sectionZ = 0;
+        }
     }
 
     @Override
@@ -33,6 +66,7 @@ public class ChunkJobTyped<TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT>
     public void execute(ChunkBuildContext context) {
         // Task was cancelled before starting
         if (this.cancelled) {
+            this.finished = true;
             return;
         }
 
@@ -45,17 +79,21 @@ public class ChunkJobTyped<TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT>
         try {
             var output = this.task.execute(context, this);
 
-            // Task was cancelled while executing
-            if (output == null) {
-                return;
+            if (output == null || this.cancelled) {
+                // Task was cancelled while executing, report the time spent so that the work can be accounted for
+                result = new ChunkJobResult.Cancelled<>(output, System.nanoTime() - startTime);
+            } else {
+                result = new ChunkJobResult.Success<>(output, System.nanoTime() - startTime);
             }
-
-            result = new ChunkJobResult.Success<>(output, System.nanoTime() - startTime);
         } catch (Throwable throwable) {
             result = new ChunkJobResult.Failure<>(throwable);
             ChunkBuilder.LOGGER.error("Chunk build failed", throwable);
         }
 
+        // Set before the result is handed over, so that a job whose result may already be waiting is never seen as
+        // still running
+        this.finished = true;
+
         try {
             this.consumer.accept(result);
         } catch (Throwable throwable) {
@@ -63,8 +101,26 @@ public class ChunkJobTyped<TASK extends ChunkBuilderTask<OUTPUT>, OUTPUT>
         }
     }
 
+    /**
+     * {@return the type of update this job was submitted for}
+     */
+    public ChunkUpdateType getUpdateType() {
+        return this.type;
+    }
+
+    boolean tryClaim() {
+        return !this.claimed.get() && this.claimed.compareAndSet(false, true);
+    }
+
     @Override
     public boolean isStarted() {
         return this.started;
     }
+
+    /**
+     * {@return true if a thread has taken ownership of executing the job, and has not yet finished executing it}
+     */
+    public boolean isRunning() {
+        return this.claimed.get() && !this.finished;
+    }
 }
@@ -10,7 +10,9 @@ import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraft.world.phys.shapes.VoxelShape;
 
 /**
- * The block occlusion cache is responsible for performing occlusion testing of neighboring block faces.
+ * The block occlusion cache is responsible for performing occlusion testing of neighboring block faces. Most faces are
+ * tested using their precomputed {@link FaceOcclusionMask}, and only faces with irregular shapes fall back to comparing
+ * (and caching the results for) their voxel shapes.
  */
 public class BlockOcclusionCache {
     private static final byte UNCACHED_VALUE = (byte) 127;
@@ -54,6 +56,15 @@ public class BlockOcclusionCache {
                 return true;
             }
 
+            FaceOcclusionMask selfMask = BlockStateOcclusionExtended.of(selfState).sodium$getFaceOcclusionMask(facing);
+            FaceOcclusionMask adjMask = BlockStateOcclusionExtended.of(adjState).sodium$getFaceOcclusionMask(facing.getOpposite());
+
+            if (selfMask != null && adjMask != null && selfMask.isRegular() && adjMask.isRegular()) {
+                // Both shapes lie on the block grid, so the face is hidden exactly when the neighbor covers every cell
+                // which our face covers
+                return !selfMask.isCoveredBy(adjMask);
+            }
+
             // Consult the occlusion cache & do the voxel shape calculations if necessary
             return this.calculate(selfShape, adjShape);
         } else {
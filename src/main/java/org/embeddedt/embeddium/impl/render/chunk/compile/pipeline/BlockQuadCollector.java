@@ -0,0 +1,132 @@
+package org.embeddedt.embeddium.impl.render.chunk.compile.pipeline;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.BlockModelPart;
+import net.minecraft.client.renderer.block.model.BlockStateModel;
+import net.minecraft.client.renderer.block.model.SingleVariant;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import org.embeddedt.embeddium.api.model.EmbeddiumBakedModelExtension;
+import org.embeddedt.embeddium.impl.util.DirectionUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Collects the quads of a block model for every facing at once, so that the model only needs to resolve its parts
+ * once per block rather than once per facing.
+ * <p>
+ * The parts of models which only depend on the block state (see
+ * {@link EmbeddiumBakedModelExtension#hasStateOnlyGeometry(BlockState)}) are collected once per state, and shared by
+ * every block with that state until {@link #reset()} is called at the start of the next chunk build.
+ * <p>
+ * This class does not need to be thread-safe, as a separate instance is allocated per meshing thread.
+ */
+public class BlockQuadCollector {
+    /**
+     * The index of the quads which are not assigned to any cull face. The quads of each direction are found at the
+     * ordinal of that direction.
+     */
+    public static final int UNASSIGNED = DirectionUtil.ALL_DIRECTIONS.length;
+
+    private static final int FACING_COUNT = UNASSIGNED + 1;
+
+    private final ObjectArrayList<BakedQuad>[] quads = createQuadLists();
+
+    private final Reference2ReferenceOpenHashMap<BlockState, List<BakedQuad>[]> quadsByState = new Reference2ReferenceOpenHashMap<>();
+
+    /**
+     * Collects the quads of the model for the given block.
+     *
+     * @return The quads of the model for each facing, indexed by direction ordinal or {@link #UNASSIGNED}. The
+     * returned lists must not be modified, and are only valid until the next call.
+     */
+    public List<BakedQuad>[] collect(BlockRenderContext ctx, BlockAndTintGetter world) {
+        var state = ctx.state();
+        var model = ctx.model();
+
+        if (!hasStateOnlyGeometry(model, state)) {
+            return this.collectParts(ctx, world);
+        }
+
+        var quads = this.quadsByState.get(state);
+
+        if (quads == null) {
+            quads = copyQuadLists(this.collectParts(ctx, world));
+            this.quadsByState.put(state, quads);
+        }
+
+        return quads;
+    }
+
+    /**
+     * Forgets the quads of any models which were shared between blocks.
+     */
+    public void reset() {
+        this.quadsByState.clear();
+    }
+
+    private List<BakedQuad>[] collectParts(BlockRenderContext ctx, BlockAndTintGetter world) {
+        var quads = this.quads;
+
+        for (var list : quads) {
+            list.clear();
+        }
+
+        var random = ctx.random();
+        random.setSeed(ctx.seed());
+
+        List<BlockModelPart> parts = ctx.model().collectParts(world, ctx.pos(), ctx.state(), random);
+
+        // noinspection ForLoopReplaceableByForEach
+        for (int i = 0, partsSize = parts.size(); i < partsSize; i++) {
+            BlockModelPart part = parts.get(i);
+
+            for (Direction face : DirectionUtil.ALL_DIRECTIONS) {
+                quads[face.ordinal()].addAll(part.getQuads(face));
+            }
+
+            quads[UNASSIGNED].addAll(part.getQuads(null));
+        }
+
+        return quads;
+    }
+
+    private static boolean hasStateOnlyGeometry(@Nullable BlockStateModel model, BlockState state) {
+        if (model == null) {
+            return false;
+        }
+
+        // Vanilla models with a single variant never look at the random source, and don't take the level into account
+        if (model.getClass() == SingleVariant.class) {
+            return true;
+        }
+
+        return model instanceof EmbeddiumBakedModelExtension extension && extension.hasStateOnlyGeometry(state);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectArrayList<BakedQuad>[] createQuadLists() {
+        var lists = (ObjectArrayList<BakedQuad>[]) new ObjectArrayList[FACING_COUNT];
+
+        for (int i = 0; i < FACING_COUNT; i++) {
+            lists[i] = new ObjectArrayList<>();
+        }
+
+        return lists;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<BakedQuad>[] copyQuadLists(List<BakedQuad>[] quads) {
+        var copy = (List<BakedQuad>[]) new List[FACING_COUNT];
+
+        for (int i = 0; i < FACING_COUNT; i++) {
+            copy[i] = quads[i].isEmpty() ? List.of() : List.copyOf(quads[i]);
+        }
+
+        return copy;
+    }
+}
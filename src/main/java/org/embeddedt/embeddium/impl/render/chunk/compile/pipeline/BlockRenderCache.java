@@ -21,6 +21,7 @@ public class BlockRenderCache {
     private final ArrayLightDataCache lightDataCache;
 
     private final BlockRenderer blockRenderer;
+    private final BlockQuadCollector quadCollector;
     private final LightPipelineProvider lightPipelineProvider;
     @Getter
     private final SpecialBlockRenderer specialBlockRenderer;
@@ -28,6 +29,8 @@ public class BlockRenderCache {
     private final BlockModelShaper blockModels;
     private final WorldSlice worldSlice;
 
+    private final boolean prefillLightData;
+
     public BlockRenderCache(Minecraft client, ClientLevel world) {
         this.worldSlice = new WorldSlice(world);
         this.lightDataCache = new ArrayLightDataCache(this.worldSlice);
@@ -37,13 +40,17 @@ public class BlockRenderCache {
 
         var colorRegistry = new ColorProviderRegistry(client.getBlockColors());
 
+        this.quadCollector = new BlockQuadCollector();
+
         this.blockRenderer = new BlockRenderer(colorRegistry, lightPipelineProvider,
-                null, worldSlice
+                null, worldSlice, this.quadCollector
         );
         this.lightPipelineProvider = lightPipelineProvider;
         this.specialBlockRenderer = new SpecialBlockRenderer();
 
         this.blockModels = client.getModelManager().getBlockModelShaper();
+
+        this.prefillLightData = Embeddium.options().performance.useBulkLightDataPrefill;
     }
 
     public BlockModelShaper getBlockModels() {
@@ -60,7 +67,12 @@ public class BlockRenderCache {
     public void init(ChunkRenderContext context) {
         this.lightDataCache.reset(context.getOrigin().minBlockX(), context.getOrigin().minBlockY(), context.getOrigin().minBlockZ());
         this.lightPipelineProvider.reset();
+        this.quadCollector.reset();
         this.worldSlice.copyData(context);
+
+        if (this.prefillLightData) {
+            this.lightDataCache.prefill();
+        }
     }
 
     public WorldSlice getWorldSlice() {
@@ -28,7 +28,6 @@ import org.embeddedt.embeddium.impl.util.DirectionUtil;
 import org.embeddedt.embeddium.impl.util.ModelQuadUtil;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
-import net.minecraft.client.renderer.block.model.BlockModelPart;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.state.BlockState;
@@ -86,12 +85,16 @@ public class BlockRenderer {
 
     private final Map<Block, RenderType> renderTypeOverrides;
 
+    private final BlockQuadCollector quadCollector;
+
     public BlockRenderer(ColorProviderRegistry colorRegistry, LightPipelineProvider lighters,
-                         @Nullable Map<Block, RenderType> renderTypeOverrides, EmbeddiumBlockAndTintGetter world
+                         @Nullable Map<Block, RenderType> renderTypeOverrides, EmbeddiumBlockAndTintGetter world,
+                         BlockQuadCollector quadCollector
     ) {
         this.colorProviderRegistry = colorRegistry;
         this.lighters = lighters;
         this.renderTypeOverrides = renderTypeOverrides;
+        this.quadCollector = quadCollector;
 
         this.occlusionCache = new BlockOcclusionCache();
         this.useAmbientOcclusion = Minecraft.useAmbientOcclusion();
@@ -157,8 +160,11 @@ public class BlockRenderer {
 
         var encoder = buffers.get(material).getEncoder();
 
+        // The model's parts are resolved once, and split up by facing
+        List<BakedQuad>[] quadsByFacing = this.quadCollector.collect(ctx, this.world);
+
         for (Direction face : DirectionUtil.ALL_DIRECTIONS) {
-            List<BlockModelPart> quads = this.getGeometry(ctx, face);
+            List<BakedQuad> quads = quadsByFacing[face.ordinal()];
 
             if (!quads.isEmpty() && this.isFaceVisible(ctx, face)) {
                 if (encoder instanceof ContextAwareChunkVertexEncoder contextAwareEncoder) {
@@ -170,7 +176,7 @@ public class BlockRenderer {
             }
         }
 
-        List<BlockModelPart> all = this.getGeometry(ctx, null);
+        List<BakedQuad> all = quadsByFacing[BlockQuadCollector.UNASSIGNED];
 
         if (!all.isEmpty()) {
             if (encoder instanceof ContextAwareChunkVertexEncoder contextAwareEncoder) {
@@ -186,19 +192,12 @@ public class BlockRenderer {
         }
     }
 
-    private List<BlockModelPart> getGeometry(BlockRenderContext ctx, Direction face) {
-        var random = ctx.random();
-        random.setSeed(ctx.seed());
-
-        return ctx.model().collectParts(world, ctx.pos(), ctx.state(), random);
-    }
-
     private boolean isFaceVisible(BlockRenderContext ctx, Direction face) {
         return this.occlusionCache.shouldDrawSide(ctx.state(), ctx.localSlice(), ctx.pos(), face);
     }
 
     private void renderQuadList(BlockRenderContext ctx, Material material, LightPipeline lighter, ColorProvider<BlockState> colorizer, Vec3 offset,
-                                ChunkBuildBuffers buffers, ChunkModelBuilder defaultBuilder, List<BlockModelPart> quads, Direction cullFace, int flags) {
+                                ChunkBuildBuffers buffers, ChunkModelBuilder defaultBuilder, List<BakedQuad> quads, Direction cullFace, int flags) {
         var renderPassConfig = buffers.getRenderPassConfiguration();
 
         boolean reorient = (flags & USE_REORIENTING) != 0;
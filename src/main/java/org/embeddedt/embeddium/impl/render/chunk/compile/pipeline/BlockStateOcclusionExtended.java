@@ -0,0 +1,21 @@
+package org.embeddedt.embeddium.impl.render.chunk.compile.pipeline;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Provides the face occlusion masks of a block state, which are computed whenever the cached shapes of the state are
+ * rebuilt (such as after tags and data packs are reloaded).
+ */
+public interface BlockStateOcclusionExtended {
+    static BlockStateOcclusionExtended of(BlockState state) {
+        return (BlockStateOcclusionExtended) state;
+    }
+
+    /**
+     * @param direction The direction of the face
+     * @return The occlusion mask of the face, or null if the cache of the state has not been initialized yet
+     */
+    @Nullable FaceOcclusionMask sodium$getFaceOcclusionMask(Direction direction);
+}
@@ -0,0 +1,151 @@
+package org.embeddedt.embeddium.impl.render.chunk.compile.pipeline;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import org.embeddedt.embeddium.impl.util.DirectionUtil;
+
+/**
+ * The face occlusion shape of a block state rasterized onto a 16x16 grid, so that two faces can be tested against
+ * each other with a few bitwise operations instead of a voxel shape comparison.
+ *
+ * <p>Only shapes whose edges all lie on the grid can be rasterized exactly. The remaining shapes are represented by
+ * {@link #IRREGULAR}, and must be compared using their voxel shapes instead.</p>
+ *
+ * <p>Instances are immutable and interned, so the masks of block states with the same face shapes are shared.</p>
+ */
+public final class FaceOcclusionMask {
+    private static final int GRID_SIZE = 16;
+
+    // Allowance for the rounding error of shape coordinates which are meant to lie on the grid
+    private static final double GRID_EPSILON = 1.0E-6;
+
+    public static final FaceOcclusionMask EMPTY = new FaceOcclusionMask(0L, 0L, 0L, 0L, true);
+    public static final FaceOcclusionMask FULL = new FaceOcclusionMask(-1L, -1L, -1L, -1L, true);
+
+    /**
+     * The mask of faces which cannot be represented on the grid.
+     */
+    public static final FaceOcclusionMask IRREGULAR = new FaceOcclusionMask(0L, 0L, 0L, 0L, false);
+
+    private static final ObjectOpenHashSet<FaceOcclusionMask> INTERNED = new ObjectOpenHashSet<>();
+
+    static {
+        INTERNED.add(EMPTY);
+        INTERNED.add(FULL);
+    }
+
+    // One bit per grid cell, with four rows of the grid in each word
+    private final long w0, w1, w2, w3;
+    private final boolean regular;
+
+    private FaceOcclusionMask(long w0, long w1, long w2, long w3, boolean regular) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        this.regular = regular;
+    }
+
+    /**
+     * {@return false if the shape could not be rasterized, and must be compared using its voxel shape}
+     */
+    public boolean isRegular() {
+        return this.regular;
+    }
+
+    /**
+     * {@return true if every cell covered by this mask is also covered by the given mask} Both masks must be regular,
+     * and belong to faces on the same axis.
+     */
+    public boolean isCoveredBy(FaceOcclusionMask other) {
+        return ((this.w0 & ~other.w0) | (this.w1 & ~other.w1) | (this.w2 & ~other.w2) | (this.w3 & ~other.w3)) == 0L;
+    }
+
+    /**
+     * Rasterizes the face occlusion shapes of the given block state.
+     *
+     * @return The mask of each face, indexed by direction ordinal
+     */
+    public static FaceOcclusionMask[] forState(BlockState state) {
+        var masks = new FaceOcclusionMask[DirectionUtil.ALL_DIRECTIONS.length];
+
+        for (Direction direction : DirectionUtil.ALL_DIRECTIONS) {
+            masks[direction.ordinal()] = forShape(state.getFaceOcclusionShape(direction), direction.getAxis());
+        }
+
+        return masks;
+    }
+
+    /**
+     * Rasterizes a face occlusion shape. Face occlusion shapes extend across the whole block along the axis of their
+     * face, so only the two other axes need to be considered.
+     */
+    public static FaceOcclusionMask forShape(VoxelShape shape, Direction.Axis axis) {
+        if (shape == Shapes.block()) {
+            return FULL;
+        } else if (shape.isEmpty()) {
+            return EMPTY;
+        }
+
+        // The axes of the grid, in a fixed order for each face axis so that the opposing faces line up
+        Direction.Axis axisA = axis == Direction.Axis.X ? Direction.Axis.Y : Direction.Axis.X;
+        Direction.Axis axisB = axis == Direction.Axis.Z ? Direction.Axis.Y : Direction.Axis.Z;
+
+        long[] words = new long[4];
+
+        for (AABB box : shape.toAabbs()) {
+            int minA = toGridCoord(box.min(axisA));
+            int maxA = toGridCoord(box.max(axisA));
+            int minB = toGridCoord(box.min(axisB));
+            int maxB = toGridCoord(box.max(axisB));
+
+            if (minA < 0 || maxA < 0 || minB < 0 || maxB < 0) {
+                return IRREGULAR;
+            }
+
+            if (minA >= maxA) {
+                continue;
+            }
+
+            long row = (-1L >>> (64 - (maxA - minA))) << minA;
+
+            for (int b = minB; b < maxB; b++) {
+                words[b >> 2] |= row << ((b & 3) * GRID_SIZE);
+            }
+        }
+
+        return intern(new FaceOcclusionMask(words[0], words[1], words[2], words[3], true));
+    }
+
+    private static int toGridCoord(double value) {
+        double scaled = Math.clamp(value, 0.0, 1.0) * GRID_SIZE;
+        long rounded = Math.round(scaled);
+
+        return Math.abs(scaled - rounded) <= GRID_EPSILON ? (int) rounded : -1;
+    }
+
+    private static synchronized FaceOcclusionMask intern(FaceOcclusionMask mask) {
+        return INTERNED.addOrGet(mask);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FaceOcclusionMask that)) return false;
+
+        return this.w0 == that.w0 && this.w1 == that.w1 && this.w2 == that.w2 && this.w3 == that.w3 && this.regular == that.regular;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(this.w0);
+        result = 31 * result + Long.hashCode(this.w1);
+        result = 31 * result + Long.hashCode(this.w2);
+        result = 31 * result + Long.hashCode(this.w3);
+        return 31 * result + Boolean.hashCode(this.regular);
+    }
+}
@@ -1,6 +1,7 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile.sorting;
 
 import org.embeddedt.embeddium.impl.render.chunk.sorting.TranslucentQuadAnalyzer;
+import org.embeddedt.embeddium.impl.util.sorting.RadixSort;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
@@ -44,8 +45,11 @@ public interface ChunkPrimitiveType {
      * @param x x position of the camera
      * @param y y position of the camera
      * @param z z position of the camera
+     * @param sorter the sorter to use, so that its scratch arrays can be reused between calls
+     * @return How far the camera can move away from the given position before the order of the primitives could
+     * change, or {@link Float#POSITIVE_INFINITY} if the order doesn't depend on the camera position
      */
-    void generateSortedIndexBuffer(ByteBuffer indexBuffer, int numPrimitives, @Nullable TranslucentQuadAnalyzer.SortState chunkData, float x, float y, float z);
+    float generateSortedIndexBuffer(ByteBuffer indexBuffer, int numPrimitives, @Nullable TranslucentQuadAnalyzer.SortState chunkData, float x, float y, float z, RadixSort sorter);
 
     default List<String> getDefines() {
         return List.of();
@@ -1,7 +1,8 @@
 package org.embeddedt.embeddium.impl.render.chunk.compile.sorting;
 
+import org.embeddedt.embeddium.impl.render.chunk.sorting.QuantizedQuadCenters;
 import org.embeddedt.embeddium.impl.render.chunk.sorting.TranslucentQuadAnalyzer;
-import org.embeddedt.embeddium.impl.util.sorting.MergeSort;
+import org.embeddedt.embeddium.impl.util.sorting.RadixSort;
 import org.jetbrains.annotations.Nullable;
 import org.lwjgl.system.MemoryUtil;
 
@@ -67,8 +68,8 @@ public final class QuadPrimitiveType implements ChunkPrimitiveType {
         }
     }
 
-    private void generateIndexBuffer(ByteBuffer indexBuffer, int[] primitiveMapping) {
-        int bufferSize = getIndexBufferSize(primitiveMapping.length);
+    private void generateIndexBuffer(ByteBuffer indexBuffer, int[] primitiveMapping, int primitiveCount) {
+        int bufferSize = getIndexBufferSize(primitiveCount);
         if(indexBuffer.capacity() != bufferSize) {
             throw new IllegalStateException("Given index buffer has length " + indexBuffer.capacity() + " but we expected " + bufferSize);
         }
@@ -77,7 +78,7 @@ public final class QuadPrimitiveType implements ChunkPrimitiveType {
         int elementsPerPrimitive = this.getIndexBufferElementsPerPrimitive();
         boolean triangulating = this.triangulating;
 
-        for (int primitiveIndex = 0; primitiveIndex < primitiveMapping.length; primitiveIndex++) {
+        for (int primitiveIndex = 0; primitiveIndex < primitiveCount; primitiveIndex++) {
             int indexOffset = primitiveIndex * elementsPerPrimitive;
 
             // Map to the desired primitive
@@ -126,24 +127,83 @@ public final class QuadPrimitiveType implements ChunkPrimitiveType {
         }
     }
 
+    private static void buildDynamicDistanceArray(short[] quantizedCenters, float[] distanceArray, int quadCount, float x,
+                                                  float y, float z) {
+        for (int quadIdx = 0; quadIdx < quadCount; ++quadIdx) {
+            int centerIdx = quadIdx * 3;
+
+            float qX = QuantizedQuadCenters.decode(quantizedCenters[centerIdx + 0]) - x;
+            float qY = QuantizedQuadCenters.decode(quantizedCenters[centerIdx + 1]) - y;
+            float qZ = QuantizedQuadCenters.decode(quantizedCenters[centerIdx + 2]) - z;
+            distanceArray[quadIdx] = qX * qX + qY * qY + qZ * qZ;
+        }
+    }
+
+    /**
+     * Finds how far the camera can move before the order of the quads sorted by distance could change. The order of
+     * two quads only changes when the camera crosses the plane halfway between their centers, and as the camera moves,
+     * the first quads to swap places are always next to each other in the current order. The distance is therefore the
+     * smallest distance from the camera to the halfway plane of any two neighboring quads.
+     */
+    private static float getStableCameraDistance(TranslucentQuadAnalyzer.SortState chunkData, int[] order, float[] distanceArray, int quadCount) {
+        float stableDistance = Float.POSITIVE_INFINITY;
+
+        for (int i = 1; i < quadCount; i++) {
+            int farQuad = order[i - 1] * 3;
+            int nearQuad = order[i] * 3;
+
+            float dX = getCenterComponent(chunkData, farQuad + 0) - getCenterComponent(chunkData, nearQuad + 0);
+            float dY = getCenterComponent(chunkData, farQuad + 1) - getCenterComponent(chunkData, nearQuad + 1);
+            float dZ = getCenterComponent(chunkData, farQuad + 2) - getCenterComponent(chunkData, nearQuad + 2);
+
+            float separation = (float) Math.sqrt(dX * dX + dY * dY + dZ * dZ);
+
+            if (separation == 0.0f) {
+                // Quads with the same center are always the same distance away, and never swap places
+                continue;
+            }
+
+            float farDistance = distanceArray[order[i - 1]];
+            float nearDistance = distanceArray[order[i]];
+
+            // Allow for the rounding error of the squared distances, which grows with the distance to the camera
+            float difference = (farDistance - nearDistance) - (4.0f * Math.ulp(farDistance));
+
+            if (difference <= 0.0f) {
+                return 0.0f;
+            }
+
+            stableDistance = Math.min(stableDistance, difference / (2.0f * separation));
+        }
+
+        return stableDistance;
+    }
+
+    private static float getCenterComponent(TranslucentQuadAnalyzer.SortState chunkData, int index) {
+        short[] quantizedCenters = chunkData.quantizedCenters();
+
+        return quantizedCenters != null ? QuantizedQuadCenters.decode(quantizedCenters[index]) : chunkData.centers()[index];
+    }
+
     @Override
-    public void generateSortedIndexBuffer(ByteBuffer indexBuffer, int quadCount, @Nullable TranslucentQuadAnalyzer.SortState chunkData, float x, float y, float z) {
+    public float generateSortedIndexBuffer(ByteBuffer indexBuffer, int quadCount, @Nullable TranslucentQuadAnalyzer.SortState chunkData, float x, float y, float z, RadixSort sorter) {
         if (chunkData == null || chunkData.level() == TranslucentQuadAnalyzer.Level.NONE || chunkData.centersLength() < 3) {
             generateSimpleIndexBuffer(indexBuffer, quadCount);
-            return;
+            return Float.POSITIVE_INFINITY;
         }
 
         if (quadCount != (chunkData.centersLength() / 3)) {
             throw new IllegalStateException(String.format("Mismatched SortState (%d) vs given quad count (%d)", chunkData.centersLength() / 3, quadCount));
         }
 
+        if (chunkData.staticOrder() != null) {
+            generateIndexBuffer(indexBuffer, chunkData.staticOrder(), quadCount);
+            return Float.POSITIVE_INFINITY;
+        }
+
         float[] centers = chunkData.centers();
-        int[] indicesArray = new int[quadCount];
-        float[] distanceArray = new float[quadCount];
+        float[] distanceArray = sorter.getKeyBuffer(quadCount);
         boolean isStatic = chunkData.level() == TranslucentQuadAnalyzer.Level.STATIC;
-        for (int quadIdx = 0; quadIdx < quadCount; ++quadIdx) {
-            indicesArray[quadIdx] = quadIdx;
-        }
 
         if (isStatic) {
             buildStaticDistanceArray(centers, distanceArray,
@@ -155,12 +215,20 @@ public final class QuadPrimitiveType implements ChunkPrimitiveType {
                     chunkData.sharedNormal().z,
                     quadCount,
                     chunkData.normalSigns());
+        } else if (chunkData.quantizedCenters() != null) {
+            buildDynamicDistanceArray(chunkData.quantizedCenters(), distanceArray, quadCount, x, y, z);
         } else {
             buildDynamicDistanceArray(centers, distanceArray, quadCount, x, y, z);
         }
 
-        MergeSort.mergeSort(indicesArray, distanceArray);
+        int[] indicesArray = sorter.sortDescending(quadCount);
+
+        generateIndexBuffer(indexBuffer, indicesArray, quadCount);
+
+        if (isStatic) {
+            return Float.POSITIVE_INFINITY;
+        }
 
-        generateIndexBuffer(indexBuffer, indicesArray);
+        return getStableCameraDistance(chunkData, indicesArray, distanceArray, quadCount);
     }
 }
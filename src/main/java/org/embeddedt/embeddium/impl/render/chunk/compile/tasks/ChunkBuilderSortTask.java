@@ -32,15 +32,17 @@ public class ChunkBuilderSortTask extends ChunkBuilderTask<ChunkSortOutput> {
     @Override
     public ChunkSortOutput execute(ChunkBuildContext context, CancellationToken cancellationSource) {
         var meshes = new Reference2ReferenceOpenHashMap<TerrainRenderPass, ChunkSortOutput.SortedMesh>();
+        float stableCameraDistance = Float.POSITIVE_INFINITY;
         for(Map.Entry<TerrainRenderPass, TranslucentQuadAnalyzer.SortState> entry : translucentMeshes.entrySet()) {
             var sortInfo = entry.getValue();
             var primitiveType = this.renderPassConfiguration.getPrimitiveTypeForPass(entry.getKey());
             var newIndexBuffer = new NativeBuffer(primitiveType.getIndexBufferSize(sortInfo.centersLength() / 3));
-            primitiveType.generateSortedIndexBuffer(newIndexBuffer.getDirectBuffer(), sortInfo.centersLength() / 3, sortInfo, cameraX - this.render.getOriginX(), cameraY - this.render.getOriginY(), cameraZ - this.render.getOriginZ());
+            float passStableDistance = primitiveType.generateSortedIndexBuffer(newIndexBuffer.getDirectBuffer(), sortInfo.centersLength() / 3, sortInfo, cameraX - this.render.getOriginX(), cameraY - this.render.getOriginY(), cameraZ - this.render.getOriginZ(), context.sorter);
+            stableCameraDistance = Math.min(stableCameraDistance, passStableDistance);
             meshes.put(entry.getKey(), new ChunkSortOutput.SortedMesh(
                     newIndexBuffer
             ));
         }
-        return new ChunkSortOutput(render, this.frame, meshes);
+        return new ChunkSortOutput(render, this.frame, meshes, cameraX, cameraY, cameraZ, stableCameraDistance);
     }
 }
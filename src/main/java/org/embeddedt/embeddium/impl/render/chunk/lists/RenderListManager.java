@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.embeddedt.embeddium.impl.render.chunk.RenderSection;
 import org.embeddedt.embeddium.impl.render.chunk.data.SectionRenderDataUnsafe;
+import org.embeddedt.embeddium.impl.render.chunk.occlusion.FlatOcclusionCuller;
 import org.embeddedt.embeddium.impl.render.chunk.occlusion.GraphDirection;
 import org.embeddedt.embeddium.impl.render.chunk.occlusion.OcclusionCuller;
 import org.embeddedt.embeddium.impl.render.chunk.occlusion.OcclusionNode;
@@ -76,7 +77,7 @@ public class RenderListManager {
 
     private RenderListDebugStatistics debugStatistics;
 
-    public RenderListManager(int minSectionY, int maxSectionY, boolean useAsyncGraphSearch, @Nullable SectionTicker sectionTicker) {
+    public RenderListManager(int minSectionY, int maxSectionY, boolean useAsyncGraphSearch, @Nullable FlatOcclusionCuller.Settings flatGraphSettings, @Nullable SectionTicker sectionTicker) {
         this.sectionTicker = sectionTicker;
 
         if (useAsyncGraphSearch) {
@@ -89,7 +90,11 @@ public class RenderListManager {
         } else {
             this.asyncGraphExecutor = null;
         }
-        this.occlusionCuller = new OcclusionCuller(this.occlusionNodes, minSectionY, maxSectionY);
+        if (flatGraphSettings != null) {
+            this.occlusionCuller = new FlatOcclusionCuller(this.occlusionNodes, minSectionY, maxSectionY, flatGraphSettings);
+        } else {
+            this.occlusionCuller = new OcclusionCuller(this.occlusionNodes, minSectionY, maxSectionY);
+        }
         this.renderLists = SortedRenderLists.empty();
         this.rebuildLists = ChunkRebuildLists.EMPTY;
     }
@@ -149,6 +154,8 @@ public class RenderListManager {
             currentOcclusionFuture = null;
         }
 
+        this.occlusionCuller.destroy();
+
         if (asyncGraphExecutor != null) {
             asyncGraphExecutor.shutdown();
 
@@ -210,6 +217,7 @@ public class RenderListManager {
         var node = new OcclusionNode(section);
         this.occlusionNodes.put(key, node);
         this.connectNeighborNodes(node);
+        this.occlusionCuller.onNodeAdded(node);
         this.needsUpdate = true;
     }
 
@@ -225,6 +233,7 @@ public class RenderListManager {
         }
 
         this.disconnectNeighborNodes(occlusionNode);
+        this.occlusionCuller.onNodeRemoved(occlusionNode);
         this.needsUpdate = true;
     }
 
@@ -241,6 +250,7 @@ public class RenderListManager {
             var node = this.getOcclusionNode(x, y, z);
             if (node != null) {
                 node.setVisibilityData(visibilityData);
+                this.occlusionCuller.onVisibilityDataChanged(node);
                 this.needsUpdate = true;
             }
         });
@@ -253,7 +263,7 @@ public class RenderListManager {
             return false;
         }
 
-        return render.getLastVisibleFrame() >= this.lastUpdatedFrame;
+        return this.occlusionCuller.getLastVisibleFrame(render) >= this.lastUpdatedFrame;
     }
 
     public void tickVisibleRenders() {
@@ -270,6 +280,10 @@ public class RenderListManager {
         return this.debugStatistics;
     }
 
+    public @Nullable String getOcclusionDebugString() {
+        return this.occlusionCuller.getDebugString();
+    }
+
     public String getTickerDebugString() {
         if (this.sectionTicker == null) {
             return "";
@@ -0,0 +1,713 @@
+package org.embeddedt.embeddium.impl.render.chunk.occlusion;
+
+import it.unimi.dsi.fastutil.longs.Long2ReferenceMap;
+import org.embeddedt.embeddium.impl.render.viewport.CameraTransform;
+import org.embeddedt.embeddium.impl.render.viewport.Viewport;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3ic;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An implementation of the occlusion culler which stores the section graph in a dense grid of primitive arrays,
+ * rather than walking linked {@link OcclusionNode} objects. This avoids most of the pointer chasing during the
+ * breadth-first search, as only the nodes which are handed to the visitor are ever dereferenced.
+ *
+ * <p>The grid wraps around on the X and Z axes, with each section stored at its world coordinates modulo the grid
+ * width. As the camera moves, newly loaded sections take the place of the sections which were unloaded behind it,
+ * so the grid never needs to be re-centered. If two loaded columns would ever map to the same slot, the grid is
+ * doubled in width.</p>
+ *
+ * <p>Slot indices are laid out as {@code (y << yShift) | (z << xzShift) | x}, so that neighbors can be found with
+ * a few bit operations. Adjacency is tracked explicitly, since the wrapped neighbor of a section at the edge of the
+ * loaded area belongs to a different column.</p>
+ *
+ * <p>If more than one search thread is requested, each breadth-first level is processed in two phases. The distance
+ * and frustum tests for the level are first split across a thread pool, as they only depend on the position of each
+ * section. The results are then merged on the calling thread in queue order, which invokes the visitor and enqueues
+ * the neighbors exactly as the serial search would. This means the output is identical regardless of how many
+ * threads are used. The frustum of the viewport must therefore be safe to query from multiple threads.</p>
+ *
+ * <p>In incremental mode, the order in which sections were visited by the previous search is kept, along with the
+ * index at which each breadth-first level started. When the camera starts inside a loaded section, each step of the
+ * search moves one section further from the camera, so the level of a section is its Manhattan distance from the
+ * camera section, and a level only depends on the levels before it. If the next search uses the same viewport, it
+ * can replay the visits of every level before the first one affected by a change to the graph, and only search the
+ * remaining levels. Any change to the camera position or frustum affects every level, so a full search is done
+ * instead.</p>
+ */
+public class FlatOcclusionCuller extends OcclusionCuller {
+    private static final int INITIAL_WIDTH_SHIFT = 5;
+    private static final int MAX_WIDTH_SHIFT = 12;
+
+    /**
+     * The minimum number of sections in a level before the level is split across the search threads, and the
+     * number of sections below which a task will not be split any further.
+     */
+    private static final int PARALLEL_GRAIN = 256;
+
+    private static final int RESULT_VISIBLE = 1 << GraphDirection.COUNT;
+
+    private final int minSectionY, maxSectionY;
+
+    private int xzShift, yShift;
+    private int xMask, zMask, columnMask;
+
+    // Per-slot state
+    private OcclusionNode[] nodes;
+    private long[] visibilityData;
+    private int[] lastVisibleFrame;
+    private byte[] incomingDirections;
+    private byte[] adjacentMask;
+
+    // Per-column state, used to recover the world coordinates of a slot
+    private int[] columnX, columnZ;
+    private int[] columnNodeCount;
+
+    private int[] readQueue = new int[256], writeQueue = new int[256];
+    private int readCount, writeCount;
+
+    // The visibility and outward directions of each section in the read queue, see RESULT_VISIBLE
+    private int[] levelResults = new int[256];
+
+    @Nullable
+    private final ForkJoinPool searchPool;
+
+    private boolean isCameraInUnloadedSection;
+
+    // The visits of the last search in order, stored as the slot index if visible or its complement if not
+    private int[] visitLog = new int[256];
+    private int visitCount;
+
+    // The index of the first visit of each level in the visit log, followed by the total number of visits
+    private int[] levelStarts = new int[64];
+    private int levelCount;
+
+    private final boolean incremental;
+
+    private boolean historyValid;
+    private Viewport historyViewport;
+    private float historySearchDistance;
+    private boolean historyUseOcclusionCulling;
+    private int historyFrame;
+    private int historyOriginX, historyOriginY, historyOriginZ;
+
+    // The first level of the last search which is affected by changes to the graph since then
+    private int dirtyLevel = Integer.MAX_VALUE;
+
+    private int fullSearches, incrementalSearches;
+    private int lastSearchVisited, lastSearchReused;
+
+    /**
+     * @param searchThreads The number of threads to split each level of the search across
+     * @param incremental   Whether the results of the previous search should be reused where possible
+     */
+    public record Settings(int searchThreads, boolean incremental) {
+
+    }
+
+    public FlatOcclusionCuller(Long2ReferenceMap<OcclusionNode> sections, int minSectionY, int maxSectionY, Settings settings) {
+        super(sections, minSectionY, maxSectionY);
+
+        this.minSectionY = minSectionY;
+        this.maxSectionY = maxSectionY;
+
+        this.allocate(INITIAL_WIDTH_SHIFT);
+
+        this.incremental = settings.incremental();
+
+        if (settings.searchThreads() > 1) {
+            this.searchPool = new ForkJoinPool(settings.searchThreads(), pool -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Celeritas chunk graph search worker " + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        } else {
+            this.searchPool = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.searchPool != null) {
+            this.searchPool.shutdown();
+        }
+    }
+
+    private void allocate(int widthShift) {
+        if (widthShift > MAX_WIDTH_SHIFT) {
+            throw new IllegalStateException("Section grid cannot grow beyond " + (1 << MAX_WIDTH_SHIFT) + " sections wide");
+        }
+
+        int width = 1 << widthShift;
+        int columns = width * width;
+        int slots = columns * Math.max(1, this.maxSectionY - this.minSectionY);
+
+        this.xzShift = widthShift;
+        this.yShift = widthShift * 2;
+        this.xMask = width - 1;
+        this.zMask = (width - 1) << widthShift;
+        this.columnMask = columns - 1;
+
+        this.nodes = new OcclusionNode[slots];
+        this.visibilityData = new long[slots];
+        this.lastVisibleFrame = new int[slots];
+        this.incomingDirections = new byte[slots];
+        this.adjacentMask = new byte[slots];
+
+        Arrays.fill(this.visibilityData, VisibilityEncoding.NULL);
+        Arrays.fill(this.lastVisibleFrame, -1);
+
+        this.columnX = new int[columns];
+        this.columnZ = new int[columns];
+        this.columnNodeCount = new int[columns];
+    }
+
+    private int getColumnIndex(int x, int z) {
+        return ((z << this.xzShift) & this.zMask) | (x & this.xMask);
+    }
+
+    private int findSlot(int x, int y, int z) {
+        if (y < this.minSectionY || y >= this.maxSectionY) {
+            return -1;
+        }
+
+        int column = this.getColumnIndex(x, z);
+
+        if (this.columnNodeCount[column] == 0 || this.columnX[column] != x || this.columnZ[column] != z) {
+            return -1;
+        }
+
+        int slot = ((y - this.minSectionY) << this.yShift) | column;
+
+        return this.nodes[slot] != null ? slot : -1;
+    }
+
+    @Override
+    public void onNodeAdded(OcclusionNode node) {
+        int y = node.getChunkY();
+
+        if (y < this.minSectionY || y >= this.maxSectionY) {
+            throw new IllegalArgumentException("Section is outside the world height: " + node);
+        }
+
+        int column = this.getColumnIndex(node.getChunkX(), node.getChunkZ());
+
+        while (this.columnNodeCount[column] != 0 &&
+                (this.columnX[column] != node.getChunkX() || this.columnZ[column] != node.getChunkZ())) {
+            this.grow();
+            column = this.getColumnIndex(node.getChunkX(), node.getChunkZ());
+        }
+
+        this.insert(node, -1);
+
+        // The neighbors on the previous level may now be able to reach this section
+        this.markDirty(node.getChunkX(), node.getChunkY(), node.getChunkZ(), -1);
+    }
+
+    private void insert(OcclusionNode node, int frame) {
+        int x = node.getChunkX(), y = node.getChunkY(), z = node.getChunkZ();
+        int column = this.getColumnIndex(x, z);
+        int slot = ((y - this.minSectionY) << this.yShift) | column;
+
+        if (this.nodes[slot] != null) {
+            throw new IllegalStateException("Section grid slot is already occupied by " + this.nodes[slot]);
+        }
+
+        this.columnX[column] = x;
+        this.columnZ[column] = z;
+        this.columnNodeCount[column]++;
+
+        this.nodes[slot] = node;
+        this.visibilityData[slot] = node.getVisibilityData();
+        this.lastVisibleFrame[slot] = frame;
+        this.incomingDirections[slot] = GraphDirectionSet.NONE;
+
+        int mask = GraphDirectionSet.NONE;
+
+        for (int direction = 0; direction < GraphDirection.COUNT; direction++) {
+            int adjacent = this.findSlot(x + GraphDirection.x(direction), y + GraphDirection.y(direction), z + GraphDirection.z(direction));
+
+            if (adjacent >= 0) {
+                mask |= GraphDirectionSet.of(direction);
+                this.adjacentMask[adjacent] |= (byte) GraphDirectionSet.of(GraphDirection.opposite(direction));
+            }
+        }
+
+        this.adjacentMask[slot] = (byte) mask;
+    }
+
+    private void grow() {
+        var oldNodes = this.nodes;
+        var oldFrames = this.lastVisibleFrame;
+
+        this.allocate(this.xzShift + 1);
+
+        // Slot indices are changing, so the visit log is no longer meaningful
+        this.historyValid = false;
+
+        for (int slot = 0; slot < oldNodes.length; slot++) {
+            if (oldNodes[slot] != null) {
+                this.insert(oldNodes[slot], oldFrames[slot]);
+            }
+        }
+    }
+
+    @Override
+    public void onNodeRemoved(OcclusionNode node) {
+        int x = node.getChunkX(), y = node.getChunkY(), z = node.getChunkZ();
+        int slot = this.findSlot(x, y, z);
+
+        if (slot < 0 || this.nodes[slot] != node) {
+            throw new IllegalStateException("Section is not present in the grid: " + node);
+        }
+
+        if (this.historyValid && this.lastVisibleFrame[slot] == this.historyFrame) {
+            // The neighbors on the previous level may have reached other sections through this one
+            this.markDirty(x, y, z, -1);
+        }
+
+        for (int direction = 0; direction < GraphDirection.COUNT; direction++) {
+            int adjacent = this.findSlot(x + GraphDirection.x(direction), y + GraphDirection.y(direction), z + GraphDirection.z(direction));
+
+            if (adjacent >= 0) {
+                this.adjacentMask[adjacent] &= (byte) ~GraphDirectionSet.of(GraphDirection.opposite(direction));
+            }
+        }
+
+        this.nodes[slot] = null;
+        this.visibilityData[slot] = VisibilityEncoding.NULL;
+        this.lastVisibleFrame[slot] = -1;
+        this.incomingDirections[slot] = GraphDirectionSet.NONE;
+        this.adjacentMask[slot] = GraphDirectionSet.NONE;
+
+        this.columnNodeCount[slot & this.columnMask]--;
+    }
+
+    @Override
+    public void onVisibilityDataChanged(OcclusionNode node) {
+        int slot = this.findSlot(node.getChunkX(), node.getChunkY(), node.getChunkZ());
+
+        if (slot >= 0) {
+            this.visibilityData[slot] = node.getVisibilityData();
+
+            if (this.historyValid && this.lastVisibleFrame[slot] == this.historyFrame) {
+                this.markDirty(node.getChunkX(), node.getChunkY(), node.getChunkZ(), 0);
+            }
+        }
+    }
+
+    /**
+     * Marks the level of the last search containing the given section, plus an offset, as the earliest level which
+     * must be searched again.
+     */
+    private void markDirty(int x, int y, int z, int levelOffset) {
+        if (!this.historyValid) {
+            return;
+        }
+
+        int level = Math.abs(x - this.historyOriginX) + Math.abs(y - this.historyOriginY) + Math.abs(z - this.historyOriginZ);
+
+        this.dirtyLevel = Math.min(this.dirtyLevel, level + levelOffset);
+    }
+
+    @Override
+    public int getLastVisibleFrame(OcclusionNode node) {
+        int slot = this.findSlot(node.getChunkX(), node.getChunkY(), node.getChunkZ());
+
+        return slot >= 0 ? this.lastVisibleFrame[slot] : -1;
+    }
+
+    @Override
+    public void findVisible(Visitor visitor,
+                            Viewport viewport,
+                            float searchDistance,
+                            boolean useOcclusionCulling,
+                            int frame)
+    {
+        this.readCount = 0;
+        this.writeCount = 0;
+
+        this.regionFrustumGrid.update(viewport, searchDistance, this.minSectionY, this.maxSectionY);
+
+        int resumeLevel = this.getResumeLevel(viewport, searchDistance, useOcclusionCulling);
+        boolean inWorld;
+
+        if (resumeLevel > 0) {
+            this.resume(visitor, resumeLevel, frame);
+            this.incrementalSearches++;
+
+            inWorld = true;
+        } else {
+            this.visitCount = 0;
+            this.levelCount = 0;
+            this.fullSearches++;
+
+            this.isCameraInUnloadedSection = false;
+            inWorld = this.init(visitor, viewport, searchDistance, useOcclusionCulling, frame);
+            if (this.isCameraInUnloadedSection) {
+                useOcclusionCulling = false;
+            }
+        }
+
+        int reused = this.visitCount;
+
+        while (this.flip()) {
+            this.beginLevel();
+            this.processQueue(visitor, viewport, searchDistance, useOcclusionCulling, frame);
+        }
+
+        this.endSearch();
+
+        this.lastSearchReused = resumeLevel > 0 ? reused : 0;
+        this.lastSearchVisited = this.visitCount - this.lastSearchReused;
+
+        var origin = viewport.getChunkCoord();
+
+        this.historyValid = this.incremental && inWorld;
+        this.historyViewport = viewport;
+        this.historySearchDistance = searchDistance;
+        this.historyUseOcclusionCulling = useOcclusionCulling;
+        this.historyFrame = frame;
+        this.historyOriginX = origin.x();
+        this.historyOriginY = origin.y();
+        this.historyOriginZ = origin.z();
+        this.dirtyLevel = Integer.MAX_VALUE;
+    }
+
+    /**
+     * {@return the first level of the previous search which must be searched again, or 0 if a full search is needed}
+     */
+    private int getResumeLevel(Viewport viewport, float searchDistance, boolean useOcclusionCulling) {
+        if (!this.historyValid || searchDistance != this.historySearchDistance ||
+                useOcclusionCulling != this.historyUseOcclusionCulling) {
+            return 0;
+        }
+
+        var origin = viewport.getChunkCoord();
+
+        if (origin.x() != this.historyOriginX || origin.y() != this.historyOriginY || origin.z() != this.historyOriginZ ||
+                !viewport.hasSameView(this.historyViewport)) {
+            return 0;
+        }
+
+        return Math.max(0, Math.min(this.dirtyLevel, this.levelCount));
+    }
+
+    /**
+     * Replays the visits of the previous search before the given level, and enqueues the sections which were on that
+     * level so that the search can continue from there.
+     */
+    private void resume(Visitor visitor, int level, int frame) {
+        final var log = this.visitLog;
+        final int replayEnd = this.levelStarts[level];
+
+        for (int i = 0; i < replayEnd; i++) {
+            int entry = log[i];
+            int slot = entry >= 0 ? entry : ~entry;
+
+            this.lastVisibleFrame[slot] = frame;
+            visitor.visit(this.nodes[slot], entry >= 0);
+        }
+
+        if (level < this.levelCount) {
+            // The incoming directions of these sections only depend on the previous levels, so they are still valid
+            final int frontierEnd = this.levelStarts[level + 1];
+
+            this.ensureWriteCapacity(frontierEnd - replayEnd);
+
+            for (int i = replayEnd; i < frontierEnd; i++) {
+                int entry = log[i];
+                int slot = entry >= 0 ? entry : ~entry;
+
+                this.lastVisibleFrame[slot] = frame;
+                this.writeQueue[this.writeCount++] = slot;
+            }
+        }
+
+        this.visitCount = replayEnd;
+        this.levelCount = level;
+    }
+
+    private void beginLevel() {
+        if (this.levelCount + 2 > this.levelStarts.length) {
+            this.levelStarts = Arrays.copyOf(this.levelStarts, this.levelStarts.length * 2);
+        }
+
+        this.levelStarts[this.levelCount++] = this.visitCount;
+    }
+
+    private void endSearch() {
+        // The start of the level after the last one, so that the bounds of every level can be found
+        this.levelStarts[this.levelCount] = this.visitCount;
+    }
+
+    private void logVisit(int slot, boolean visible) {
+        if (this.visitCount == this.visitLog.length) {
+            this.visitLog = Arrays.copyOf(this.visitLog, this.visitLog.length * 2);
+        }
+
+        this.visitLog[this.visitCount++] = visible ? slot : ~slot;
+    }
+
+    @Override
+    public String getDebugString() {
+        return String.format("Graph: %d full, %d incremental (%d visited, %d reused)",
+                this.fullSearches, this.incrementalSearches, this.lastSearchVisited, this.lastSearchReused);
+    }
+
+    private boolean flip() {
+        if (this.writeCount == 0) {
+            return false;
+        }
+
+        var tmp = this.readQueue;
+        this.readQueue = this.writeQueue;
+        this.writeQueue = tmp;
+
+        this.readCount = this.writeCount;
+        this.writeCount = 0;
+
+        return true;
+    }
+
+    private void processQueue(Visitor visitor,
+                              Viewport viewport,
+                              float searchDistance,
+                              boolean useOcclusionCulling,
+                              int frame)
+    {
+        final var queue = this.readQueue;
+        final int count = this.readCount;
+
+        if (this.levelResults.length < count) {
+            this.levelResults = new int[Math.max(count, this.levelResults.length * 2)];
+        }
+
+        if (this.searchPool != null && count >= PARALLEL_GRAIN * 2) {
+            this.searchPool.invoke(new ClassifyTask(this, viewport, searchDistance, 0, count));
+        } else {
+            this.classify(viewport, searchDistance, 0, count);
+        }
+
+        final var results = this.levelResults;
+
+        for (int i = 0; i < count; i++) {
+            int slot = queue[i];
+            int result = results[i];
+
+            boolean visible = (result & RESULT_VISIBLE) != 0;
+            visitor.visit(this.nodes[slot], visible);
+            this.logVisit(slot, visible);
+
+            if (!visible) {
+                continue;
+            }
+
+            int connections;
+
+            if (useOcclusionCulling) {
+                // The incoming directions may have been changed by sections earlier in this level, so this can only
+                // be computed once the previous sections have been merged.
+                connections = VisibilityEncoding.getConnections(this.visibilityData[slot], this.incomingDirections[slot]);
+            } else {
+                connections = GraphDirectionSet.ALL;
+            }
+
+            this.visitNeighbors(slot, connections & result, frame);
+        }
+    }
+
+    /**
+     * Performs the visibility tests for the sections in the given range of the read queue, storing the results in
+     * {@link #levelResults}. This only reads state which does not change during the search, so it may be called from
+     * multiple threads for disjoint ranges.
+     */
+    private void classify(Viewport viewport, float searchDistance, int from, int to) {
+        final var queue = this.readQueue;
+        final var results = this.levelResults;
+
+        final CameraTransform transform = viewport.getTransform();
+        final Vector3ic origin = viewport.getChunkCoord();
+
+        for (int i = from; i < to; i++) {
+            int slot = queue[i];
+
+            int column = slot & this.columnMask;
+            int x = this.columnX[column];
+            int y = (slot >>> this.yShift) + this.minSectionY;
+            int z = this.columnZ[column];
+
+            if (isWithinRenderDistance(transform, x, y, z, searchDistance) && this.regionFrustumGrid.isSectionVisible(viewport, x, y, z)) {
+                // We can only traverse *outwards* from the center of the graph search
+                results[i] = RESULT_VISIBLE | getOutwardDirections(origin, x, y, z);
+            } else {
+                results[i] = 0;
+            }
+        }
+    }
+
+    private void visitNeighbors(int slot, int outgoing, int frame) {
+        outgoing &= this.adjacentMask[slot];
+
+        if (outgoing == GraphDirectionSet.NONE) {
+            return;
+        }
+
+        this.ensureWriteCapacity(GraphDirection.COUNT);
+
+        int ySize = 1 << this.yShift;
+
+        if (GraphDirectionSet.contains(outgoing, GraphDirection.DOWN)) {
+            this.visitNode(slot - ySize, GraphDirectionSet.of(GraphDirection.UP), frame);
+        }
+
+        if (GraphDirectionSet.contains(outgoing, GraphDirection.UP)) {
+            this.visitNode(slot + ySize, GraphDirectionSet.of(GraphDirection.DOWN), frame);
+        }
+
+        if (GraphDirectionSet.contains(outgoing, GraphDirection.NORTH)) {
+            this.visitNode((slot & ~this.zMask) | ((slot - (1 << this.xzShift)) & this.zMask), GraphDirectionSet.of(GraphDirection.SOUTH), frame);
+        }
+
+        if (GraphDirectionSet.contains(outgoing, GraphDirection.SOUTH)) {
+            this.visitNode((slot & ~this.zMask) | ((slot + (1 << this.xzShift)) & this.zMask), GraphDirectionSet.of(GraphDirection.NORTH), frame);
+        }
+
+        if (GraphDirectionSet.contains(outgoing, GraphDirection.WEST)) {
+            this.visitNode((slot & ~this.xMask) | ((slot - 1) & this.xMask), GraphDirectionSet.of(GraphDirection.EAST), frame);
+        }
+
+        if (GraphDirectionSet.contains(outgoing, GraphDirection.EAST)) {
+            this.visitNode((slot & ~this.xMask) | ((slot + 1) & this.xMask), GraphDirectionSet.of(GraphDirection.WEST), frame);
+        }
+    }
+
+    private void visitNode(int slot, int incoming, int frame) {
+        if (this.lastVisibleFrame[slot] != frame) {
+            // This is the first time we are visiting this section during the given frame, so we must
+            // reset the state.
+            this.lastVisibleFrame[slot] = frame;
+            this.incomingDirections[slot] = GraphDirectionSet.NONE;
+
+            this.writeQueue[this.writeCount++] = slot;
+        }
+
+        this.incomingDirections[slot] |= (byte) incoming;
+    }
+
+    private void ensureWriteCapacity(int count) {
+        if (this.writeCount + count > this.writeQueue.length) {
+            this.writeQueue = Arrays.copyOf(this.writeQueue, Math.max(this.writeQueue.length * 2, this.writeCount + count));
+        }
+    }
+
+    /**
+     * Enqueues the sections the search starts from.
+     *
+     * @return True if the search started from the section containing the camera
+     */
+    private boolean init(Visitor visitor,
+                         Viewport viewport,
+                         float searchDistance,
+                         boolean useOcclusionCulling,
+                         int frame)
+    {
+        var origin = viewport.getChunkCoord();
+
+        if (origin.y() < this.minSectionY) {
+            // below the world
+            this.initOutsideWorldHeight(viewport, searchDistance, frame,
+                    this.minSectionY, GraphDirectionSet.of(GraphDirection.DOWN));
+        } else if (origin.y() >= this.maxSectionY) {
+            // above the world
+            this.initOutsideWorldHeight(viewport, searchDistance, frame,
+                    this.maxSectionY - 1, GraphDirectionSet.of(GraphDirection.UP));
+        } else if (this.findSlot(origin.x(), origin.y(), origin.z()) < 0) {
+            // inside the world height-wise, but in an unloaded section
+            this.initOutsideWorldHeight(viewport, searchDistance, frame,
+                    origin.y(), GraphDirectionSet.of(GraphDirection.UP) | GraphDirectionSet.of(GraphDirection.DOWN));
+            this.isCameraInUnloadedSection = true;
+        } else {
+            this.initWithinWorld(visitor, viewport, useOcclusionCulling, frame);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void initWithinWorld(Visitor visitor, Viewport viewport, boolean useOcclusionCulling, int frame) {
+        var origin = viewport.getChunkCoord();
+        int slot = this.findSlot(origin.x(), origin.y(), origin.z());
+
+        this.lastVisibleFrame[slot] = frame;
+        this.incomingDirections[slot] = GraphDirectionSet.NONE;
+
+        this.beginLevel();
+
+        visitor.visit(this.nodes[slot], true);
+        this.logVisit(slot, true);
+
+        int outgoing;
+
+        if (useOcclusionCulling) {
+            // Since the camera is located inside this chunk, there are no "incoming" directions. So we need to instead
+            // find any possible paths out of this chunk and enqueue those neighbors.
+            outgoing = VisibilityEncoding.getConnections(this.visibilityData[slot]);
+        } else {
+            // Occlusion culling is disabled, so we can traverse into any neighbor.
+            outgoing = GraphDirectionSet.ALL;
+        }
+
+        this.visitNeighbors(slot, outgoing, frame);
+    }
+
+    private void initOutsideWorldHeight(Viewport viewport,
+                                        float searchDistance,
+                                        int frame,
+                                        int height,
+                                        int direction)
+    {
+        forEachColumnInSpiral(viewport.getChunkCoord(), searchDistance, (x, z) -> {
+            int slot = this.findSlot(x, height, z);
+
+            if (slot < 0 || !this.regionFrustumGrid.isSectionVisible(viewport, x, height, z)) {
+                return;
+            }
+
+            this.ensureWriteCapacity(1);
+            this.visitNode(slot, direction, frame);
+        });
+    }
+
+    private static final class ClassifyTask extends RecursiveAction {
+        private final FlatOcclusionCuller culler;
+        private final Viewport viewport;
+        private final float searchDistance;
+        private final int from, to;
+
+        ClassifyTask(FlatOcclusionCuller culler, Viewport viewport, float searchDistance, int from, int to) {
+            this.culler = culler;
+            this.viewport = viewport;
+            this.searchDistance = searchDistance;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= PARALLEL_GRAIN) {
+                this.culler.classify(this.viewport, this.searchDistance, this.from, this.to);
+                return;
+            }
+
+            int mid = (this.from + this.to) >>> 1;
+
+            invokeAll(new ClassifyTask(this.culler, this.viewport, this.searchDistance, this.from, mid),
+                    new ClassifyTask(this.culler, this.viewport, this.searchDistance, mid, this.to));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.embeddedt.embeddium.impl.util.collections.ReadQueue;
 import org.embeddedt.embeddium.impl.util.collections.WriteQueue;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3ic;
 
 import java.util.Objects;
@@ -20,6 +21,8 @@ public class OcclusionCuller {
 
     private final DoubleBufferedQueue<OcclusionNode> queue = new DoubleBufferedQueue<>();
 
+    protected final RegionFrustumGrid regionFrustumGrid = new RegionFrustumGrid();
+
     private boolean isCameraInUnloadedSection;
 
     public OcclusionCuller(Long2ReferenceMap<OcclusionNode> sections, int minSectionY, int maxSectionY) {
@@ -37,6 +40,8 @@ public class OcclusionCuller {
         final var queues = this.queue;
         queues.reset();
 
+        this.regionFrustumGrid.update(viewport, searchDistance, this.minSectionY, this.maxSectionY);
+
         this.isCameraInUnloadedSection = false;
         this.init(visitor, queues.write(), viewport, searchDistance, useOcclusionCulling, frame);
         if(this.isCameraInUnloadedSection) {
@@ -44,12 +49,13 @@ public class OcclusionCuller {
         }
 
         while (queues.flip()) {
-            processQueue(visitor, viewport, searchDistance, useOcclusionCulling, frame, queues.read(), queues.write());
+            processQueue(visitor, viewport, this.regionFrustumGrid, searchDistance, useOcclusionCulling, frame, queues.read(), queues.write());
         }
     }
 
     private static void processQueue(Visitor visitor,
                                      Viewport viewport,
+                                     RegionFrustumGrid regionFrustumGrid,
                                      float searchDistance,
                                      boolean useOcclusionCulling,
                                      int frame,
@@ -59,7 +65,7 @@ public class OcclusionCuller {
         OcclusionNode section;
 
         while ((section = readQueue.dequeue()) != null) {
-            boolean visible = isSectionVisible(section, viewport, searchDistance);
+            boolean visible = isSectionVisible(section, viewport, regionFrustumGrid, searchDistance);
             visitor.visit(section, visible);
 
             if (!visible) {
@@ -88,8 +94,9 @@ public class OcclusionCuller {
         }
     }
 
-    private static boolean isSectionVisible(OcclusionNode section, Viewport viewport, float maxDistance) {
-        return isWithinRenderDistance(viewport.getTransform(), section, maxDistance) && isWithinFrustum(viewport, section);
+    private static boolean isSectionVisible(OcclusionNode section, Viewport viewport, RegionFrustumGrid regionFrustumGrid, float maxDistance) {
+        return isWithinRenderDistance(viewport.getTransform(), section, maxDistance) &&
+                regionFrustumGrid.isSectionVisible(viewport, section.getChunkX(), section.getChunkY(), section.getChunkZ());
     }
 
     private static void visitNeighbors(final WriteQueue<OcclusionNode> queue, OcclusionNode section, int outgoing, int frame) {
@@ -145,25 +152,33 @@ public class OcclusionCuller {
     }
 
     private static int getOutwardDirections(Vector3ic origin, OcclusionNode section) {
+        return getOutwardDirections(origin, section.getChunkX(), section.getChunkY(), section.getChunkZ());
+    }
+
+    protected static int getOutwardDirections(Vector3ic origin, int chunkX, int chunkY, int chunkZ) {
         int planes = 0;
 
-        planes |= section.getChunkX() <= origin.x() ? 1 << GraphDirection.WEST  : 0;
-        planes |= section.getChunkX() >= origin.x() ? 1 << GraphDirection.EAST  : 0;
+        planes |= chunkX <= origin.x() ? 1 << GraphDirection.WEST  : 0;
+        planes |= chunkX >= origin.x() ? 1 << GraphDirection.EAST  : 0;
 
-        planes |= section.getChunkY() <= origin.y() ? 1 << GraphDirection.DOWN  : 0;
-        planes |= section.getChunkY() >= origin.y() ? 1 << GraphDirection.UP    : 0;
+        planes |= chunkY <= origin.y() ? 1 << GraphDirection.DOWN  : 0;
+        planes |= chunkY >= origin.y() ? 1 << GraphDirection.UP    : 0;
 
-        planes |= section.getChunkZ() <= origin.z() ? 1 << GraphDirection.NORTH : 0;
-        planes |= section.getChunkZ() >= origin.z() ? 1 << GraphDirection.SOUTH : 0;
+        planes |= chunkZ <= origin.z() ? 1 << GraphDirection.NORTH : 0;
+        planes |= chunkZ >= origin.z() ? 1 << GraphDirection.SOUTH : 0;
 
         return planes;
     }
 
     private static boolean isWithinRenderDistance(CameraTransform camera, OcclusionNode section, float maxDistance) {
+        return isWithinRenderDistance(camera, section.getChunkX(), section.getChunkY(), section.getChunkZ(), maxDistance);
+    }
+
+    protected static boolean isWithinRenderDistance(CameraTransform camera, int chunkX, int chunkY, int chunkZ, float maxDistance) {
         // origin point of the chunk's bounding box (in view space)
-        int ox = section.getOriginX() - camera.intX;
-        int oy = section.getOriginY() - camera.intY;
-        int oz = section.getOriginZ() - camera.intZ;
+        int ox = (chunkX << 4) - camera.intX;
+        int oy = (chunkY << 4) - camera.intY;
+        int oz = (chunkZ << 4) - camera.intZ;
 
         // coordinates of the point to compare (in view space)
         // this is the closest point within the bounding box to the center (0, 0, 0)
@@ -187,12 +202,16 @@ public class OcclusionCuller {
     // The bounding box of a chunk section must be large enough to contain all possible geometry within it. Block models
     // can extend outside a block volume by +/- 1.0 blocks on all axis. Additionally, we make use of a small epsilon
     // to deal with floating point imprecision during a frustum check (see GH#2132).
-    private static final float CHUNK_SECTION_SIZE = 8.0f /* chunk bounds */ + 1.0f /* maximum model extent */ + 0.125f /* epsilon */;
+    static final float CHUNK_SECTION_SIZE = 8.0f /* chunk bounds */ + 1.0f /* maximum model extent */ + 0.125f /* epsilon */;
 
     public static boolean isWithinFrustum(Viewport viewport, OcclusionNode section) {
         return viewport.isBoxVisible(section.getCenterX(), section.getCenterY(), section.getCenterZ(), CHUNK_SECTION_SIZE);
     }
 
+    protected static boolean isWithinFrustum(Viewport viewport, int chunkX, int chunkY, int chunkZ) {
+        return viewport.isBoxVisible((chunkX << 4) + 8, (chunkY << 4) + 8, (chunkZ << 4) + 8, CHUNK_SECTION_SIZE);
+    }
+
     private void init(Visitor visitor,
                       WriteQueue<OcclusionNode> queue,
                       Viewport viewport,
@@ -245,9 +264,6 @@ public class OcclusionCuller {
         visitNeighbors(queue, section, outgoing, frame);
     }
 
-    // Enqueues sections that are inside the viewport using diamond spiral iteration to avoid sorting and ensure a
-    // consistent order. Innermost layers are enqueued first. Within each layer, iteration starts at the northernmost
-    // section and proceeds counterclockwise (N->W->S->E).
     private void initOutsideWorldHeight(WriteQueue<OcclusionNode> queue,
                                         Viewport viewport,
                                         float searchDistance,
@@ -255,22 +271,29 @@ public class OcclusionCuller {
                                         int height,
                                         int direction)
     {
-        var origin = viewport.getChunkCoord();
+        forEachColumnInSpiral(viewport.getChunkCoord(), searchDistance,
+                (x, z) -> this.tryVisitNode(queue, x, height, z, direction, frame, viewport));
+    }
+
+    // Visits the columns within the search distance using diamond spiral iteration to avoid sorting and ensure a
+    // consistent order. Innermost layers are visited first. Within each layer, iteration starts at the northernmost
+    // column and proceeds counterclockwise (N->W->S->E).
+    protected static void forEachColumnInSpiral(Vector3ic origin, float searchDistance, ColumnVisitor visitor) {
         var radius = MathUtil.mojfloor(searchDistance / 16.0f);
 
         // Layer 0
-        this.tryVisitNode(queue, origin.x(), height, origin.z(), direction, frame, viewport);
+        visitor.visit(origin.x(), origin.z());
 
         // Complete layers, excluding layer 0
         for (int layer = 1; layer <= radius; layer++) {
             for (int z = -layer; z < layer; z++) {
                 int x = Math.abs(z) - layer;
-                this.tryVisitNode(queue, origin.x() + x, height, origin.z() + z, direction, frame, viewport);
+                visitor.visit(origin.x() + x, origin.z() + z);
             }
 
             for (int z = layer; z > -layer; z--) {
                 int x = layer - Math.abs(z);
-                this.tryVisitNode(queue, origin.x() + x, height, origin.z() + z, direction, frame, viewport);
+                visitor.visit(origin.x() + x, origin.z() + z);
             }
         }
 
@@ -280,22 +303,22 @@ public class OcclusionCuller {
 
             for (int z = -radius; z <= -l; z++) {
                 int x = -z - layer;
-                this.tryVisitNode(queue, origin.x() + x, height, origin.z() + z, direction, frame, viewport);
+                visitor.visit(origin.x() + x, origin.z() + z);
             }
 
             for (int z = l; z <= radius; z++) {
                 int x = z - layer;
-                this.tryVisitNode(queue, origin.x() + x, height, origin.z() + z, direction, frame, viewport);
+                visitor.visit(origin.x() + x, origin.z() + z);
             }
 
             for (int z = radius; z >= l; z--) {
                 int x = layer - z;
-                this.tryVisitNode(queue, origin.x() + x, height, origin.z() + z, direction, frame, viewport);
+                visitor.visit(origin.x() + x, origin.z() + z);
             }
 
             for (int z = -l; z >= -radius; z--) {
                 int x = layer + z;
-                this.tryVisitNode(queue, origin.x() + x, height, origin.z() + z, direction, frame, viewport);
+                visitor.visit(origin.x() + x, origin.z() + z);
             }
         }
     }
@@ -303,7 +326,7 @@ public class OcclusionCuller {
     private void tryVisitNode(WriteQueue<OcclusionNode> queue, int x, int y, int z, int direction, int frame, Viewport viewport) {
         OcclusionNode section = this.getRenderSection(x, y, z);
 
-        if (section == null || !isWithinFrustum(viewport, section)) {
+        if (section == null || !this.regionFrustumGrid.isSectionVisible(viewport, x, y, z)) {
             return;
         }
 
@@ -314,10 +337,57 @@ public class OcclusionCuller {
         return this.sections.get(PositionUtil.packSection(x, y, z));
     }
 
+    /**
+     * Called after a node has been added to the section map and linked to its neighbors.
+     */
+    public void onNodeAdded(OcclusionNode node) {
+
+    }
+
+    /**
+     * Called after a node has been removed from the section map and unlinked from its neighbors.
+     */
+    public void onNodeRemoved(OcclusionNode node) {
+
+    }
+
+    /**
+     * Called after the visibility data of a node has changed.
+     */
+    public void onVisibilityDataChanged(OcclusionNode node) {
+
+    }
+
+    /**
+     * Releases any resources held by the culler. No further searches may be performed afterwards.
+     */
+    public void destroy() {
+
+    }
+
+    /**
+     * {@return a line of statistics about the graph search for the debug screen, or null if there is none}
+     */
+    public @Nullable String getDebugString() {
+        return null;
+    }
+
+    /**
+     * {@return the last frame in which the given node was reached by the graph search}
+     */
+    public int getLastVisibleFrame(OcclusionNode node) {
+        return node.getLastVisibleFrame();
+    }
+
     public interface Visitor {
         void visit(OcclusionNode section, boolean visible);
     }
 
+    @FunctionalInterface
+    protected interface ColumnVisitor {
+        void visit(int x, int z);
+    }
+
     /*
     private static class DistanceFilterHolder {
         private static final RenderSectionDistanceFilter INSTANCE;
@@ -0,0 +1,127 @@
+package org.embeddedt.embeddium.impl.render.chunk.occlusion;
+
+import org.embeddedt.embeddium.impl.render.chunk.region.RenderRegion;
+import org.embeddedt.embeddium.impl.render.viewport.CameraTransform;
+import org.embeddedt.embeddium.impl.render.viewport.Viewport;
+import org.embeddedt.embeddium.impl.render.viewport.frustum.Frustum;
+
+/**
+ * Classifies every render region within the search distance against the frustum before a graph search starts, so
+ * that sections in regions which are entirely inside or outside the frustum can skip their own frustum test.
+ *
+ * <p>Each region box is padded in the same way as the section boxes tested by {@link OcclusionCuller}, so it contains
+ * the box of every section within it. If the region box is fully inside the frustum, so is every section box, and
+ * if it is outside one of the frustum planes, so is every section box. Only the sections of regions which intersect
+ * the frustum need to be tested individually, which gives the same results as testing every section.</p>
+ *
+ * <p>The grid is not modified during a search, so it can be queried from multiple threads.</p>
+ */
+final class RegionFrustumGrid {
+    private static final int REGION_WIDTH_SHIFT = Integer.numberOfTrailingZeros(RenderRegion.REGION_WIDTH);
+    private static final int REGION_HEIGHT_SHIFT = Integer.numberOfTrailingZeros(RenderRegion.REGION_HEIGHT);
+    private static final int REGION_LENGTH_SHIFT = Integer.numberOfTrailingZeros(RenderRegion.REGION_LENGTH);
+
+    // The extra space around each section box, see OcclusionCuller#CHUNK_SECTION_SIZE
+    private static final float SECTION_PADDING = OcclusionCuller.CHUNK_SECTION_SIZE - 8.0f;
+
+    private Viewport viewport;
+    private float searchDistance;
+
+    private int originX, originY, originZ;
+    private int sizeX, sizeY, sizeZ;
+
+    private byte[] states = new byte[0];
+
+    private float[] minX = new float[0], minY = new float[0], minZ = new float[0];
+    private float[] maxX = new float[0], maxY = new float[0], maxZ = new float[0];
+
+    /**
+     * Classifies the regions around the camera of the given viewport, unless they were already classified for it.
+     */
+    public void update(Viewport viewport, float searchDistance, int minSectionY, int maxSectionY) {
+        if (this.viewport == viewport && this.searchDistance == searchDistance) {
+            return;
+        }
+
+        this.viewport = viewport;
+        this.searchDistance = searchDistance;
+
+        var origin = viewport.getChunkCoord();
+
+        // Sections which pass the distance test are at most this many sections away on each horizontal axis
+        int radius = (int) Math.ceil(searchDistance / 16.0f) + 1;
+
+        this.originX = (origin.x() - radius) >> REGION_WIDTH_SHIFT;
+        this.originY = minSectionY >> REGION_HEIGHT_SHIFT;
+        this.originZ = (origin.z() - radius) >> REGION_LENGTH_SHIFT;
+
+        this.sizeX = ((origin.x() + radius) >> REGION_WIDTH_SHIFT) - this.originX + 1;
+        this.sizeY = ((maxSectionY - 1) >> REGION_HEIGHT_SHIFT) - this.originY + 1;
+        this.sizeZ = ((origin.z() + radius) >> REGION_LENGTH_SHIFT) - this.originZ + 1;
+
+        int count = Math.max(0, this.sizeX * this.sizeY * this.sizeZ);
+
+        if (this.states.length < count) {
+            this.states = new byte[count];
+
+            this.minX = new float[count];
+            this.minY = new float[count];
+            this.minZ = new float[count];
+            this.maxX = new float[count];
+            this.maxY = new float[count];
+            this.maxZ = new float[count];
+        }
+
+        CameraTransform transform = viewport.getTransform();
+
+        final float widthBlocks = RenderRegion.REGION_WIDTH * 16;
+        final float heightBlocks = RenderRegion.REGION_HEIGHT * 16;
+        final float lengthBlocks = RenderRegion.REGION_LENGTH * 16;
+
+        int index = 0;
+
+        for (int y = 0; y < this.sizeY; y++) {
+            for (int z = 0; z < this.sizeZ; z++) {
+                for (int x = 0; x < this.sizeX; x++) {
+                    // Computed in the same way as Viewport#isBoxVisible, relative to the camera
+                    float originX = (((this.originX + x) << (REGION_WIDTH_SHIFT + 4)) - transform.intX) - transform.fracX;
+                    float originY = (((this.originY + y) << (REGION_HEIGHT_SHIFT + 4)) - transform.intY) - transform.fracY;
+                    float originZ = (((this.originZ + z) << (REGION_LENGTH_SHIFT + 4)) - transform.intZ) - transform.fracZ;
+
+                    this.minX[index] = originX - SECTION_PADDING;
+                    this.minY[index] = originY - SECTION_PADDING;
+                    this.minZ[index] = originZ - SECTION_PADDING;
+
+                    this.maxX[index] = originX + widthBlocks + SECTION_PADDING;
+                    this.maxY[index] = originY + heightBlocks + SECTION_PADDING;
+                    this.maxZ[index] = originZ + lengthBlocks + SECTION_PADDING;
+
+                    index++;
+                }
+            }
+        }
+
+        viewport.getFrustum().intersectAabs(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ, count, this.states);
+    }
+
+    /**
+     * {@return true if the box of the given section is within the frustum}
+     */
+    public boolean isSectionVisible(Viewport viewport, int chunkX, int chunkY, int chunkZ) {
+        int x = (chunkX >> REGION_WIDTH_SHIFT) - this.originX;
+        int y = (chunkY >> REGION_HEIGHT_SHIFT) - this.originY;
+        int z = (chunkZ >> REGION_LENGTH_SHIFT) - this.originZ;
+
+        if (viewport == this.viewport && x >= 0 && x < this.sizeX && y >= 0 && y < this.sizeY && z >= 0 && z < this.sizeZ) {
+            int state = this.states[(((y * this.sizeZ) + z) * this.sizeX) + x];
+
+            if (state == Frustum.INSIDE) {
+                return true;
+            } else if (state == Frustum.OUTSIDE) {
+                return false;
+            }
+        }
+
+        return OcclusionCuller.isWithinFrustum(viewport, chunkX, chunkY, chunkZ);
+    }
+}
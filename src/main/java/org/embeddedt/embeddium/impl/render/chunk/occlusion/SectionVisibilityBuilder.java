@@ -0,0 +1,262 @@
+package org.embeddedt.embeddium.impl.render.chunk.occlusion;
+
+import java.util.Arrays;
+
+/**
+ * Computes which faces of a section can be seen from each other, by flood filling the non-opaque blocks of the
+ * section. This produces the same connectivity as vanilla's {@code VisGraph}, already in the form of
+ * {@link VisibilityEncoding}.
+ *
+ * <p>The opaque blocks are stored as a 4096-bit set, where each 64-bit word holds four rows of blocks along the X axis
+ * (one for each of four consecutive Z coordinates) at a single Y coordinate. The flood fill spreads through a whole
+ * word at once using shifts, rather than visiting one block at a time.</p>
+ *
+ * <p>This class is not thread-safe, and should be allocated per meshing task.</p>
+ */
+public final class SectionVisibilityBuilder {
+    private static final int BLOCK_COUNT = 16 * 16 * 16;
+    private static final int WORD_COUNT = BLOCK_COUNT / 64;
+
+    // Sections with fewer opaque blocks than this are always treated as fully visible, which matches vanilla
+    private static final int MIN_OCCLUDING_BLOCKS = 256;
+
+    private static final int WORDS_PER_LAYER = 4; /* one for every four Z coordinates */
+
+    private static final long ROW_START = 0x0001_0001_0001_0001L; /* x = 0 */
+    private static final long ROW_END = 0x8000_8000_8000_8000L; /* x = 15 */
+
+    private static final long FIRST_ROW = 0x0000_0000_0000_FFFFL;
+    private static final long LAST_ROW = 0xFFFF_0000_0000_0000L;
+
+    private final long[] opaque = new long[WORD_COUNT];
+
+    // The blocks which have been reached by any flood fill so far, and by the current flood fill
+    private final long[] reached = new long[WORD_COUNT];
+    private final long[] component = new long[WORD_COUNT];
+
+    private int opaqueCount;
+
+    /**
+     * Marks the block at the given position (relative to the section origin) as opaque.
+     */
+    public void markOpaque(int x, int y, int z) {
+        int index = getIndex(x, y, z);
+        int word = index >>> 6;
+        long bit = 1L << (index & 63);
+
+        if ((this.opaque[word] & bit) == 0) {
+            this.opaque[word] |= bit;
+            this.opaqueCount++;
+        }
+    }
+
+    /**
+     * {@return the visibility data of the section, as encoded by {@link VisibilityEncoding}}
+     */
+    public long computeVisibilityData() {
+        if (this.opaqueCount < MIN_OCCLUDING_BLOCKS) {
+            return VisibilityEncoding.EVERYTHING;
+        } else if (this.opaqueCount == BLOCK_COUNT) {
+            return VisibilityEncoding.NULL;
+        }
+
+        Arrays.fill(this.reached, 0L);
+
+        long visibilityData = 0L;
+
+        for (int word = 0; word < WORD_COUNT; word++) {
+            long start;
+
+            // Every open block on the edge of the section which hasn't been reached yet starts a new flood fill
+            while ((start = getEdgeMask(word) & ~this.opaque[word] & ~this.reached[word]) != 0L) {
+                int faces = this.floodFill(word, Long.lowestOneBit(start));
+
+                for (int from = 0; from < GraphDirection.COUNT; from++) {
+                    if (GraphDirectionSet.contains(faces, from)) {
+                        visibilityData |= (long) faces << VisibilityEncoding.bit(from, 0);
+                    }
+                }
+            }
+        }
+
+        return visibilityData;
+    }
+
+    /**
+     * Finds every open block connected to the given one, and marks them as reached.
+     *
+     * @return The set of faces which the connected blocks touch
+     */
+    private int floodFill(int startWord, long startBit) {
+        var component = this.component;
+
+        Arrays.fill(component, 0L);
+        component[startWord] = fillWord(startBit, ~this.opaque[startWord]);
+
+        boolean changed;
+
+        // Sweeping in both directions lets a fill cross the whole section in a single pass along most paths
+        do {
+            changed = false;
+
+            for (int word = 0; word < WORD_COUNT; word++) {
+                changed |= this.spread(word);
+            }
+
+            for (int word = WORD_COUNT - 1; word >= 0; word--) {
+                changed |= this.spread(word);
+            }
+        } while (changed);
+
+        int faces = GraphDirectionSet.NONE;
+
+        for (int word = 0; word < WORD_COUNT; word++) {
+            long bits = component[word];
+
+            if (bits == 0L) {
+                continue;
+            }
+
+            this.reached[word] |= bits;
+
+            int y = word / WORDS_PER_LAYER;
+            int zGroup = word % WORDS_PER_LAYER;
+
+            if ((bits & ROW_START) != 0L) faces |= GraphDirectionSet.of(GraphDirection.WEST);
+            if ((bits & ROW_END) != 0L) faces |= GraphDirectionSet.of(GraphDirection.EAST);
+            if (y == 0) faces |= GraphDirectionSet.of(GraphDirection.DOWN);
+            if (y == 15) faces |= GraphDirectionSet.of(GraphDirection.UP);
+            if (zGroup == 0 && (bits & FIRST_ROW) != 0L) faces |= GraphDirectionSet.of(GraphDirection.NORTH);
+            if (zGroup == WORDS_PER_LAYER - 1 && (bits & LAST_ROW) != 0L) faces |= GraphDirectionSet.of(GraphDirection.SOUTH);
+        }
+
+        return faces;
+    }
+
+    /**
+     * Spreads the current flood fill into the given word from its neighbors, and then through the word itself.
+     *
+     * @return True if any new blocks were reached
+     */
+    private boolean spread(int word) {
+        var component = this.component;
+
+        long open = ~this.opaque[word];
+        long bits = component[word];
+        long incoming = bits;
+
+        if (word >= WORDS_PER_LAYER) {
+            incoming |= component[word - WORDS_PER_LAYER];
+        }
+
+        if (word < WORD_COUNT - WORDS_PER_LAYER) {
+            incoming |= component[word + WORDS_PER_LAYER];
+        }
+
+        // The last row of the previous word is next to the first row of this word, and vice versa
+        if (word % WORDS_PER_LAYER != 0) {
+            incoming |= component[word - 1] >>> 48;
+        }
+
+        if (word % WORDS_PER_LAYER != WORDS_PER_LAYER - 1) {
+            incoming |= component[word + 1] << 48;
+        }
+
+        incoming &= open;
+
+        if (incoming == bits) {
+            return false;
+        }
+
+        long filled = fillWord(incoming, open);
+        component[word] = filled;
+
+        return filled != bits;
+    }
+
+    /**
+     * Expands the given set of blocks through the open blocks within a single word, along both the X and Z axes.
+     */
+    private static long fillWord(long bits, long open) {
+        long prev;
+
+        do {
+            prev = bits;
+
+            bits = fillAlongX(bits, open);
+            bits = fillAlongZ(bits, open);
+        } while (bits != prev);
+
+        return bits;
+    }
+
+    /**
+     * Fills the given bits through the open bits of each row, using a parallel prefix of shifts in each direction. A
+     * bit only propagates into its neighbor within the same row, so that the fill doesn't wrap into the next row.
+     */
+    private static long fillAlongX(long bits, long open) {
+        long propagate = open & ~ROW_START;
+        bits |= propagate & (bits << 1);
+        propagate &= propagate << 1;
+        bits |= propagate & (bits << 2);
+        propagate &= propagate << 2;
+        bits |= propagate & (bits << 4);
+        propagate &= propagate << 4;
+        bits |= propagate & (bits << 8);
+
+        propagate = open & ~ROW_END;
+        bits |= propagate & (bits >>> 1);
+        propagate &= propagate >>> 1;
+        bits |= propagate & (bits >>> 2);
+        propagate &= propagate >>> 2;
+        bits |= propagate & (bits >>> 4);
+        propagate &= propagate >>> 4;
+        bits |= propagate & (bits >>> 8);
+
+        return bits;
+    }
+
+    /**
+     * Fills the given bits through the open bits of each column of four rows, in the same manner as
+     * {@link #fillAlongX(long, long)}.
+     */
+    private static long fillAlongZ(long bits, long open) {
+        long propagate = open;
+        bits |= propagate & (bits << 16);
+        propagate &= propagate << 16;
+        bits |= propagate & (bits << 32);
+
+        propagate = open;
+        bits |= propagate & (bits >>> 16);
+        propagate &= propagate >>> 16;
+        bits |= propagate & (bits >>> 32);
+
+        return bits;
+    }
+
+    /**
+     * {@return the blocks of the given word which are on the edge of the section}
+     */
+    private static long getEdgeMask(int word) {
+        int y = word / WORDS_PER_LAYER;
+        int zGroup = word % WORDS_PER_LAYER;
+
+        if (y == 0 || y == 15) {
+            return -1L;
+        }
+
+        long mask = ROW_START | ROW_END;
+
+        if (zGroup == 0) {
+            mask |= FIRST_ROW;
+        } else if (zGroup == WORDS_PER_LAYER - 1) {
+            mask |= LAST_ROW;
+        }
+
+        return mask;
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+}
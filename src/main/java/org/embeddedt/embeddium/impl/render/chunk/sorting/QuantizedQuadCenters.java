@@ -0,0 +1,57 @@
+package org.embeddedt.embeddium.impl.render.chunk.sorting;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Packs the centers of translucent quads into 16-bit coordinates relative to the section origin, so that sections
+ * which must be sorted again whenever the camera moves keep half as much data alive between sorts.
+ *
+ * <p>The coordinates cover the same range as the compact vertex format (8 blocks on either side of the section), with
+ * a step of 1/2048 of a block. Each coordinate is rounded to the nearest step, so the decoded value is never more than
+ * {@link #MAX_ERROR} away from the original.</p>
+ */
+public final class QuantizedQuadCenters {
+    private static final float ORIGIN = 8.0f;
+    private static final float RANGE = 32.0f;
+
+    private static final int MAX_VALUE = 65535;
+
+    private static final float SCALE = (MAX_VALUE + 1) / RANGE;
+    private static final float SCALE_INV = RANGE / (MAX_VALUE + 1);
+
+    /**
+     * The largest difference between a coordinate and its decoded value, which is half of one step.
+     */
+    public static final float MAX_ERROR = SCALE_INV / 2.0f;
+
+    private QuantizedQuadCenters() {
+    }
+
+    /**
+     * Quantizes the first {@code length} coordinates of the given quad centers.
+     *
+     * @return The quantized coordinates, or null if any coordinate is outside the range which can be represented
+     */
+    public static short @Nullable [] quantize(float[] centers, int length) {
+        short[] quantized = new short[length];
+
+        for (int i = 0; i < length; i++) {
+            int value = Math.round((centers[i] + ORIGIN) * SCALE);
+
+            if (value < 0 || value > MAX_VALUE) {
+                return null;
+            }
+
+            quantized[i] = (short) value;
+        }
+
+        return quantized;
+    }
+
+    /**
+     * {@return the coordinate relative to the section origin which the given quantized value represents}
+     */
+    public static float decode(short value) {
+        return (Short.toUnsignedInt(value) * SCALE_INV) - ORIGIN;
+    }
+}
@@ -0,0 +1,96 @@
+package org.embeddedt.embeddium.impl.render.chunk.sorting;
+
+import org.embeddedt.embeddium.impl.Embeddium;
+import org.embeddedt.embeddium.impl.render.chunk.RenderSection;
+import org.embeddedt.embeddium.impl.render.chunk.terrain.TerrainRenderPass;
+
+import java.util.Map;
+
+/**
+ * Keeps count of the memory held by the sort states of every loaded section, and stops keeping the data needed for
+ * dynamic sorting of far away sections once the configured limit has been reached.
+ *
+ * <p>Sections which are over the limit are downgraded to {@link TranslucentQuadAnalyzer.Level#STATIC}. They keep the
+ * order they were sorted in when they were meshed, and are not sorted again until they are next rebuilt. Sections
+ * near the camera, where sorting errors are the most visible, are never downgraded.</p>
+ *
+ * <p>This class is not thread-safe, and should only be used from the main thread.</p>
+ */
+public class SortStateMemoryTracker {
+    /**
+     * Sections which are at most this many sections away from the camera along every axis are never downgraded.
+     */
+    private static final int NEAR_SECTION_DISTANCE = 4;
+
+    private static final long BYTES_PER_MIB = 1024L * 1024L;
+
+    private long retainedBytes;
+    private int retainedStates;
+
+    private long downgrades;
+
+    /**
+     * Accounts for a sort state which will be kept by the given section.
+     *
+     * @return The state to keep, which is a downgraded copy of the given state if it would exceed the limit
+     */
+    public TranslucentQuadAnalyzer.SortState retain(RenderSection section, TranslucentQuadAnalyzer.SortState state,
+                                                    int cameraSectionX, int cameraSectionY, int cameraSectionZ) {
+        long bytes = state.getRetainedBytes();
+
+        if (bytes == 0) {
+            return state;
+        }
+
+        if (this.isOverLimit(bytes) && !isNear(section, cameraSectionX, cameraSectionY, cameraSectionZ)) {
+            this.downgrades++;
+
+            return new TranslucentQuadAnalyzer.SortState(TranslucentQuadAnalyzer.Level.STATIC, null, 0, null, null, null, null);
+        }
+
+        this.retainedBytes += bytes;
+        this.retainedStates++;
+
+        return state;
+    }
+
+    /**
+     * Accounts for the sort states which a section has stopped keeping.
+     */
+    public void release(Map<TerrainRenderPass, TranslucentQuadAnalyzer.SortState> states) {
+        for (var state : states.values()) {
+            long bytes = state.getRetainedBytes();
+
+            if (bytes != 0) {
+                this.retainedBytes -= bytes;
+                this.retainedStates--;
+            }
+        }
+    }
+
+    public long getRetainedBytes() {
+        return this.retainedBytes;
+    }
+
+    public String getDebugString() {
+        int limit = Embeddium.options().performance.translucentSortDataLimitMiB;
+
+        return String.format("Sort Data: %d KiB/%s (S=%d D=%d)",
+                this.retainedBytes / 1024L,
+                limit > 0 ? limit + " MiB" : "unlimited",
+                this.retainedStates,
+                this.downgrades);
+    }
+
+    private boolean isOverLimit(long additionalBytes) {
+        int limit = Embeddium.options().performance.translucentSortDataLimitMiB;
+
+        return limit > 0 && this.retainedBytes + additionalBytes > limit * BYTES_PER_MIB;
+    }
+
+    private static boolean isNear(RenderSection section, int cameraSectionX, int cameraSectionY, int cameraSectionZ) {
+        return Math.abs(section.getChunkX() - cameraSectionX) <= NEAR_SECTION_DISTANCE &&
+                Math.abs(section.getChunkY() - cameraSectionY) <= NEAR_SECTION_DISTANCE &&
+                Math.abs(section.getChunkZ() - cameraSectionZ) <= NEAR_SECTION_DISTANCE;
+    }
+}
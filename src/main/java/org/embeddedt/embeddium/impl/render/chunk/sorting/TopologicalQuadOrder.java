@@ -0,0 +1,258 @@
+package org.embeddedt.embeddium.impl.render.chunk.sorting;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Finds an order to draw translucent quads in which is correct from every camera position, so that sections whose
+ * quads face in different directions don't always need to be sorted again as the camera moves.
+ *
+ * <p>Translucent geometry is drawn with back faces culled, so a quad can only be seen from the side its normal points
+ * towards. If quad B covers part of quad A from some camera position, then B must have a point in front of A's plane
+ * (between the camera and A), and A must have a point behind B's plane. When neither holds, the two quads can be drawn
+ * in either order. Every pair of quads which fails this test is treated as overlapping, which is conservative, and the
+ * overlapping pairs form a graph which can be sorted topologically. If the graph has a cycle, no order is valid from
+ * every position, and the quads must be sorted by distance instead.</p>
+ *
+ * <p>The test looks at every pair of quads, so it is only attempted for sections with few translucent quads. This
+ * class is not thread-safe, and its arrays are reused between sections.</p>
+ */
+public class TopologicalQuadOrder {
+    /**
+     * The largest number of quads which will be ordered, as the work grows with the square of the number of quads.
+     */
+    public static final int MAX_QUADS = 512;
+
+    // Points within this distance of a plane are treated as lying on it
+    private static final float EPSILON = 1.0E-4F;
+
+    private final float[] planes = new float[MAX_QUADS * 4];
+
+    // The axis which the plane of each quad is perpendicular to, or -1 if it is not aligned with an axis
+    private final int[] planeAxes = new int[MAX_QUADS];
+
+    // The minimum and maximum coordinates of each quad along each axis
+    private final float[] bounds = new float[MAX_QUADS * 6];
+
+    // Each row holds the quads which must be drawn after the quad of that row
+    private final long[] successors = new long[MAX_QUADS * (MAX_QUADS / 64)];
+    private final int[] predecessorCounts = new int[MAX_QUADS];
+
+    private final int[] order = new int[MAX_QUADS];
+
+    /**
+     * Computes an order to draw the given quads in, from back to front.
+     *
+     * @param vertices The positions of the quads, with 12 elements (4 vertices of 3 coordinates) per quad
+     * @param quadCount The number of quads
+     * @return The index of each quad in the order it should be drawn, or null if the quads must be sorted by distance
+     */
+    public int @Nullable [] compute(float[] vertices, int quadCount) {
+        if (quadCount > MAX_QUADS) {
+            return null;
+        }
+
+        float[] planes = this.planes;
+
+        for (int quad = 0; quad < quadCount; quad++) {
+            if (!computePlane(vertices, quad * 12, planes, quad * 4)) {
+                return null;
+            }
+
+            this.planeAxes[quad] = getAlignedAxis(planes, quad * 4);
+            computeBounds(vertices, quad * 12, this.bounds, quad * 6);
+        }
+
+        int rowLength = (quadCount + 63) >>> 6;
+        long[] successors = this.successors;
+        int[] predecessorCounts = this.predecessorCounts;
+
+        Arrays.fill(successors, 0, quadCount * rowLength, 0L);
+        Arrays.fill(predecessorCounts, 0, quadCount, 0);
+
+        for (int a = 0; a < quadCount; a++) {
+            for (int b = a + 1; b < quadCount; b++) {
+                // Whether each quad can cover part of the other from some camera position
+                boolean bCoversA = this.isInFront(vertices, b, a) && this.isBehind(vertices, a, b);
+                boolean aCoversB = this.isInFront(vertices, a, b) && this.isBehind(vertices, b, a);
+
+                if (bCoversA && aCoversB) {
+                    return null;
+                }
+
+                if (bCoversA) {
+                    successors[(a * rowLength) + (b >>> 6)] |= 1L << b;
+                    predecessorCounts[b]++;
+                } else if (aCoversB) {
+                    successors[(b * rowLength) + (a >>> 6)] |= 1L << a;
+                    predecessorCounts[a]++;
+                }
+            }
+        }
+
+        return this.sort(quadCount, rowLength);
+    }
+
+    private int @Nullable [] sort(int quadCount, int rowLength) {
+        long[] successors = this.successors;
+        int[] predecessorCounts = this.predecessorCounts;
+        int[] order = this.order;
+
+        int head = 0, tail = 0;
+
+        // The order array doubles as the queue of quads whose predecessors have all been drawn
+        for (int quad = 0; quad < quadCount; quad++) {
+            if (predecessorCounts[quad] == 0) {
+                order[tail++] = quad;
+            }
+        }
+
+        while (head < tail) {
+            int quad = order[head++];
+            int rowOffset = quad * rowLength;
+
+            for (int word = 0; word < rowLength; word++) {
+                long bits = successors[rowOffset + word];
+
+                while (bits != 0L) {
+                    int successor = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    if (--predecessorCounts[successor] == 0) {
+                        order[tail++] = successor;
+                    }
+                }
+            }
+        }
+
+        // If any quads were never reached, they form a cycle
+        if (tail != quadCount) {
+            return null;
+        }
+
+        return Arrays.copyOf(order, quadCount);
+    }
+
+    /**
+     * Computes the plane of a quad as its unit normal and distance from the origin.
+     *
+     * @return False if the quad is degenerate, and has no well-defined plane
+     */
+    private static boolean computePlane(float[] vertices, int offset, float[] planes, int planeOffset) {
+        float dx0 = vertices[offset + 6] - vertices[offset + 0];
+        float dy0 = vertices[offset + 7] - vertices[offset + 1];
+        float dz0 = vertices[offset + 8] - vertices[offset + 2];
+        float dx1 = vertices[offset + 9] - vertices[offset + 3];
+        float dy1 = vertices[offset + 10] - vertices[offset + 4];
+        float dz1 = vertices[offset + 11] - vertices[offset + 5];
+
+        float normX = dy0 * dz1 - dz0 * dy1;
+        float normY = dz0 * dx1 - dx0 * dz1;
+        float normZ = dx0 * dy1 - dy0 * dx1;
+
+        float length = (float) Math.sqrt(normX * normX + normY * normY + normZ * normZ);
+
+        if (length < EPSILON) {
+            return false;
+        }
+
+        normX /= length;
+        normY /= length;
+        normZ /= length;
+
+        float distance = 0.0f;
+
+        for (int vertex = 0; vertex < 4; vertex++) {
+            int vertexOffset = offset + (vertex * 3);
+            distance += normX * vertices[vertexOffset] + normY * vertices[vertexOffset + 1] + normZ * vertices[vertexOffset + 2];
+        }
+
+        planes[planeOffset + 0] = normX;
+        planes[planeOffset + 1] = normY;
+        planes[planeOffset + 2] = normZ;
+        planes[planeOffset + 3] = distance * 0.25f;
+
+        return true;
+    }
+
+    /**
+     * {@return true if any vertex of the given quad is in front of the plane of the other quad}
+     */
+    private boolean isInFront(float[] vertices, int quad, int planeQuad) {
+        int planeOffset = planeQuad * 4;
+        int axis = this.planeAxes[planeQuad];
+
+        // For planes aligned with an axis, the furthest vertex in front of the plane is found from the bounds
+        if (axis >= 0) {
+            float sign = this.planes[planeOffset + axis];
+            float extent = sign > 0.0f ? this.bounds[(quad * 6) + 3 + axis] : this.bounds[(quad * 6) + axis];
+
+            return (sign * extent) - this.planes[planeOffset + 3] > EPSILON;
+        }
+
+        return getMaxSignedDistance(vertices, quad, this.planes, planeOffset, 1.0f) > EPSILON;
+    }
+
+    /**
+     * {@return true if any vertex of the given quad is behind the plane of the other quad}
+     */
+    private boolean isBehind(float[] vertices, int quad, int planeQuad) {
+        int planeOffset = planeQuad * 4;
+        int axis = this.planeAxes[planeQuad];
+
+        if (axis >= 0) {
+            float sign = this.planes[planeOffset + axis];
+            float extent = sign > 0.0f ? this.bounds[(quad * 6) + axis] : this.bounds[(quad * 6) + 3 + axis];
+
+            return (sign * extent) - this.planes[planeOffset + 3] < -EPSILON;
+        }
+
+        return -getMaxSignedDistance(vertices, quad, this.planes, planeOffset, -1.0f) < -EPSILON;
+    }
+
+    /**
+     * {@return the largest distance of any vertex of the given quad from the plane, multiplied by the given sign}
+     */
+    private static float getMaxSignedDistance(float[] vertices, int quad, float[] planes, int planeOffset, float sign) {
+        float normX = planes[planeOffset + 0];
+        float normY = planes[planeOffset + 1];
+        float normZ = planes[planeOffset + 2];
+        float distance = planes[planeOffset + 3];
+
+        float max = Float.NEGATIVE_INFINITY;
+
+        for (int vertexOffset = quad * 12, end = vertexOffset + 12; vertexOffset < end; vertexOffset += 3) {
+            float signedDistance = normX * vertices[vertexOffset] + normY * vertices[vertexOffset + 1] + normZ * vertices[vertexOffset + 2] - distance;
+            max = Math.max(max, signedDistance * sign);
+        }
+
+        return max;
+    }
+
+    private static int getAlignedAxis(float[] planes, int planeOffset) {
+        for (int axis = 0; axis < 3; axis++) {
+            if (Math.abs(planes[planeOffset + axis]) == 1.0f) {
+                return axis;
+            }
+        }
+
+        return -1;
+    }
+
+    private static void computeBounds(float[] vertices, int offset, float[] bounds, int boundsOffset) {
+        for (int axis = 0; axis < 3; axis++) {
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+
+            for (int vertex = 0; vertex < 4; vertex++) {
+                float value = vertices[offset + (vertex * 3) + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+
+            bounds[boundsOffset + axis] = min;
+            bounds[boundsOffset + 3 + axis] = max;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.embeddedt.embeddium.impl.render.chunk.sorting;
 
 import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import org.embeddedt.embeddium.impl.Embeddium;
 import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexEncoder;
 import org.joml.Vector3f;
 
@@ -10,6 +11,9 @@ public class TranslucentQuadAnalyzer {
     // X/Y/Z for each quad center
     private static final int EXPECTED_QUADS = 1000;
     private final FloatArrayList quadCenters = new FloatArrayList(EXPECTED_QUADS * 3);
+    // X/Y/Z for each vertex of each quad, only collected when a static order may be computed
+    private final FloatArrayList quadVertices;
+    private final TopologicalQuadOrder topologicalOrder;
     private final Vector3f[] vertexPositions = new Vector3f[4];
     private final Vector3f currentNormal = new Vector3f();
     private final Vector3f globalNormal = new Vector3f();
@@ -27,6 +31,11 @@ public class TranslucentQuadAnalyzer {
          * Sorting is required once during meshing.
          */
         STATIC,
+        /**
+         * Sorting is required once during meshing, using an order which is correct from every camera position even
+         * though the quads face in different directions.
+         */
+        ORDERED,
         /**
          * Sorting is required any time the camera moves.
          */
@@ -43,23 +52,62 @@ public class TranslucentQuadAnalyzer {
         for(int i = 0; i < 4; i++) {
             vertexPositions[i] = new Vector3f();
         }
+
+        if (Embeddium.options().performance.useStaticTranslucentOrdering) {
+            this.quadVertices = new FloatArrayList(EXPECTED_QUADS * 12);
+            this.topologicalOrder = new TopologicalQuadOrder();
+        } else {
+            this.quadVertices = null;
+            this.topologicalOrder = null;
+        }
     }
 
-    public record SortState(Level level, float[] centers, int centersLength, BitSet normalSigns, Vector3f sharedNormal) {
-        public static final SortState NONE = new SortState(Level.NONE, null, 0, null, null);
+    /**
+     * @param staticOrder The order to draw the quads in for {@link Level#ORDERED}, or null for other levels
+     * @param quantizedCenters The quad centers packed by {@link QuantizedQuadCenters}, which replace {@code centers}
+     *                         once a dynamically sorted state has been compacted for storage
+     */
+    public record SortState(Level level, float[] centers, int centersLength, BitSet normalSigns, Vector3f sharedNormal, int[] staticOrder, short[] quantizedCenters) {
+        public static final SortState NONE = new SortState(Level.NONE, null, 0, null, null, null, null);
 
         public boolean requiresDynamicSorting() {
             return level.requiresDynamicSorting();
         }
 
         public SortState compactForStorage() {
-            if(this == NONE || requiresDynamicSorting()) {
+            if(this == NONE || this.quantizedCenters != null) {
                 return this;
+            } else if(requiresDynamicSorting()) {
+                // Only the centers are needed to sort by distance to the camera
+                short[] quantized = QuantizedQuadCenters.quantize(centers, centersLength);
+
+                if(quantized != null) {
+                    return new SortState(level, null, centersLength, null, null, null, quantized);
+                } else {
+                    return new SortState(level, centers, centersLength, null, null, null, null);
+                }
             } else {
-                return new SortState(level, null, 0, null, null);
+                return new SortState(level, null, 0, null, null, null, null);
             }
         }
 
+        /**
+         * {@return the number of bytes used by the quad data which this state keeps alive}
+         */
+        public long getRetainedBytes() {
+            long bytes = 0;
+
+            if(centers != null) {
+                bytes += (long)centers.length * Float.BYTES;
+            }
+
+            if(quantizedCenters != null) {
+                bytes += (long)quantizedCenters.length * Short.BYTES;
+            }
+
+            return bytes;
+        }
+
         public static SortState compacted(SortState state) {
             return state != null ? state.compactForStorage() : null;
         }
@@ -110,9 +158,12 @@ public class TranslucentQuadAnalyzer {
             Level sortLevel;
 
             // Figure out what sort level is required
+            int[] staticOrder = null;
+
             if(hasDistinctNormals) {
-                // Must use dynamic sort
-                sortLevel = Level.DYNAMIC;
+                // Must use dynamic sort, unless there is an order which works from every camera position
+                staticOrder = topologicalOrder != null ? topologicalOrder.compute(quadVertices.elements(), quadCenters.size() / 3) : null;
+                sortLevel = staticOrder != null ? Level.ORDERED : Level.DYNAMIC;
             } else {
                 // If all quads are on the same plane we can use NONE sorting, otherwise we need to sort statically to put
                 // them in the right order
@@ -125,10 +176,10 @@ public class TranslucentQuadAnalyzer {
                 finalState = SortState.NONE;
             } else if (sortLevel.requiresDynamicSorting()) {
                 // Clone everything
-                finalState = new SortState(sortLevel, quadCenters.toArray(new float[0]), quadCenters.size(), cloneBits(normalSigns), new Vector3f(globalNormal));
+                finalState = new SortState(sortLevel, quadCenters.toArray(new float[0]), quadCenters.size(), cloneBits(normalSigns), new Vector3f(globalNormal), null, null);
             } else {
                 // Just make a thin wrapper around our backing objects
-                finalState = new SortState(sortLevel, quadCenters.elements(), quadCenters.size(), normalSigns, globalNormal);
+                finalState = new SortState(sortLevel, quadCenters.elements(), quadCenters.size(), normalSigns, globalNormal, staticOrder, null);
             }
 
             return finalState;
@@ -137,6 +188,9 @@ public class TranslucentQuadAnalyzer {
 
     public void clear() {
         quadCenters.clear();
+        if (quadVertices != null) {
+            quadVertices.clear();
+        }
         currentVertex = 0;
         globalNormal.zero();
         normalSigns.clear();
@@ -207,6 +261,16 @@ public class TranslucentQuadAnalyzer {
         centers.add(totalY / 4);
         centers.add(totalZ / 4);
 
+        var vertices = quadVertices;
+
+        if (vertices != null && currentQuadIndex < TopologicalQuadOrder.MAX_QUADS) {
+            for (Vector3f vertex : vertexPositions) {
+                vertices.add(vertex.x);
+                vertices.add(vertex.y);
+                vertices.add(vertex.z);
+            }
+        }
+
         if(!hasDistinctNormals) {
             calculateNormal();
 
@@ -231,6 +295,19 @@ public class TranslucentQuadAnalyzer {
         }
     }
 
+    /**
+     * Captures all four vertices of a quad at once. This must not be mixed with a partially captured quad from
+     * {@link #capture(ChunkVertexEncoder.Vertex)}.
+     */
+    public void captureQuad(ChunkVertexEncoder.Vertex[] vertices) {
+        for (int i = 0; i < 4; i++) {
+            var vertex = vertices[i];
+            vertexPositions[i].set(vertex.x, vertex.y, vertex.z);
+        }
+
+        captureQuad();
+    }
+
     public void capture(ChunkVertexEncoder.Vertex vertex) {
         int i = currentVertex;
         vertexPositions[i].set(vertex.x, vertex.y, vertex.z);
@@ -13,6 +13,7 @@ public class ChunkMeshBufferBuilder {
 
     private final int initialCapacity;
     private final TranslucentQuadAnalyzer analyzer;
+    private final GreedyQuadMerger merger;
 
     private ByteBuffer buffer;
     private int count;
@@ -20,6 +21,10 @@ public class ChunkMeshBufferBuilder {
     private int sectionIndex;
 
     public ChunkMeshBufferBuilder(ChunkVertexEncoder encoder, int stride, int initialCapacity, boolean collectSortState) {
+        this(encoder, stride, initialCapacity, collectSortState, null);
+    }
+
+    public ChunkMeshBufferBuilder(ChunkVertexEncoder encoder, int stride, int initialCapacity, boolean collectSortState, @Nullable GreedyQuadMerger merger) {
         this.encoder = encoder;
         this.stride = stride;
 
@@ -29,9 +34,28 @@ public class ChunkMeshBufferBuilder {
         this.initialCapacity = initialCapacity;
 
         this.analyzer = collectSortState ? new TranslucentQuadAnalyzer() : null;
+        this.merger = merger;
     }
 
     public void push(ChunkVertexEncoder.Vertex[] vertices, Material material) {
+        if (this.merger != null && this.merger.add(this, vertices, material)) {
+            return;
+        }
+
+        this.write(vertices, material);
+    }
+
+    /**
+     * Writes out the quads which were held back to be merged with their neighbors. This must be called once all the
+     * geometry of a section has been pushed, before the contents of the buffer are used.
+     */
+    public void flush() {
+        if (this.merger != null) {
+            this.merger.flush(this);
+        }
+    }
+
+    void write(ChunkVertexEncoder.Vertex[] vertices, Material material) {
         var vertexStart = this.count * this.stride;
         var vertexSize = vertices.length * this.stride;
 
@@ -41,14 +65,23 @@ public class ChunkMeshBufferBuilder {
 
         long ptr = MemoryUtil.memAddress(this.buffer, vertexStart);
 
-        if (this.analyzer != null) {
-            for (ChunkVertexEncoder.Vertex vertex : vertices) {
-                this.analyzer.capture(vertex);
+        if (vertices.length == 4) {
+            // Quads are written in one go, so that the encoder and analyzer only do their shared work once
+            if (this.analyzer != null) {
+                this.analyzer.captureQuad(vertices);
             }
-        }
 
-        for (ChunkVertexEncoder.Vertex vertex : vertices) {
-            ptr = this.encoder.write(ptr, material, vertex, this.sectionIndex);
+            this.encoder.writeQuad(ptr, material, vertices, this.sectionIndex);
+        } else {
+            if (this.analyzer != null) {
+                for (ChunkVertexEncoder.Vertex vertex : vertices) {
+                    this.analyzer.capture(vertex);
+                }
+            }
+
+            for (ChunkVertexEncoder.Vertex vertex : vertices) {
+                ptr = this.encoder.write(ptr, material, vertex, this.sectionIndex);
+            }
         }
 
         this.count += vertices.length;
@@ -67,6 +100,9 @@ public class ChunkMeshBufferBuilder {
     public void start(int sectionIndex) {
         this.count = 0;
         this.sectionIndex = sectionIndex;
+        if(this.merger != null) {
+            this.merger.clear();
+        }
         if(this.analyzer != null) {
             this.analyzer.clear();
         }
@@ -91,6 +127,10 @@ public class ChunkMeshBufferBuilder {
         this.buffer = null;
         this.capacity = 0;
 
+        if (this.merger != null) {
+            this.merger.clear();
+        }
+
         this.resetSortState();
     }
 
@@ -0,0 +1,444 @@
+package org.embeddedt.embeddium.impl.render.chunk.vertex.builder;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.embeddedt.embeddium.impl.model.quad.properties.ModelQuadFacing;
+import org.embeddedt.embeddium.impl.render.chunk.terrain.material.Material;
+import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexEncoder;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Merges the quads which cover the full face of a block into larger quads, when the quads of neighboring blocks in
+ * the same plane are identical other than their position.
+ *
+ * <p>Only quads which are aligned to the block grid, and which have the same color, light and normal at every vertex
+ * are considered, so merging them never changes their shading. The merged quads repeat the texture region of the
+ * original quad once per block, which requires a vertex type that supports texture tiling (see
+ * {@link org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexType#getMaxTiledTextureCoord()}).</p>
+ *
+ * <p>This class does not need to be thread-safe, as each mesh buffer has its own instance.</p>
+ */
+public class GreedyQuadMerger {
+    private static final int SECTION_SIZE = 16;
+    private static final int PLANE_COUNT = SECTION_SIZE + 1;
+    private static final int PLANE_AREA = SECTION_SIZE * SECTION_SIZE;
+
+    private static final int NO_KEY = -1;
+
+    private final ModelQuadFacing.Axis axis;
+    private final float maxTextureCoord;
+
+    // The key of the quad in each cell, offset by one so that empty cells are zero
+    private final int[] cells = new int[PLANE_COUNT * PLANE_AREA];
+    private int usedPlanes;
+
+    private final ObjectArrayList<QuadKey> keys = new ObjectArrayList<>();
+    private final Object2IntOpenHashMap<QuadKey> keyIds = new Object2IntOpenHashMap<>();
+    private final QuadKey scratchKey = new QuadKey();
+
+    private final ChunkVertexEncoder.Vertex[] vertices = ChunkVertexEncoder.Vertex.uninitializedQuad();
+
+    private final float[] planeCoords = new float[4], aCoords = new float[4], bCoords = new float[4];
+
+    public GreedyQuadMerger(ModelQuadFacing.Axis axis, float maxTextureCoord) {
+        this.axis = Objects.requireNonNull(axis);
+        this.maxTextureCoord = maxTextureCoord;
+
+        this.keyIds.defaultReturnValue(NO_KEY);
+    }
+
+    /**
+     * Holds on to the given quad so that it can be merged with its neighbors later.
+     *
+     * <p>Quads which lie in the same plane as a held quad may overlap it, and overlapping quads must be written in the
+     * order they were received, as the later quad is drawn over the earlier one. Before this returns, any held quad
+     * which the given quad could overlap is therefore written to the given buffer, whether or not the given quad can be
+     * merged.</p>
+     *
+     * @return False if the quad cannot be merged, in which case it must be written out as-is
+     */
+    public boolean add(ChunkMeshBufferBuilder buffer, ChunkVertexEncoder.Vertex[] vertices, Material material) {
+        if (vertices.length != 4) {
+            // The held quads which this overlaps cannot be worked out, so they are all written
+            this.flush(buffer);
+            return false;
+        }
+
+        var planeCoords = this.planeCoords;
+        var aCoords = this.aCoords;
+        var bCoords = this.bCoords;
+
+        for (int i = 0; i < 4; i++) {
+            this.project(vertices[i], i);
+        }
+
+        float plane = planeCoords[0];
+
+        // Every held quad lies on one of the planes of the block grid, so any other quad can't overlap them
+        if (planeCoords[1] != plane || planeCoords[2] != plane || planeCoords[3] != plane || !isGridCoord(plane, SECTION_SIZE)) {
+            return false;
+        }
+
+        float minA = Math.min(Math.min(aCoords[0], aCoords[1]), Math.min(aCoords[2], aCoords[3]));
+        float minB = Math.min(Math.min(bCoords[0], bCoords[1]), Math.min(bCoords[2], bCoords[3]));
+
+        // The corner of the block face which each vertex lies on, packed as 2 bits per vertex
+        int corners = 0;
+        int cornerMask = 0;
+
+        float u0 = 0.0f, v0 = 0.0f, uA = 0.0f, vA = 0.0f, uB = 0.0f, vB = 0.0f, u3 = 0.0f, v3 = 0.0f;
+
+        boolean coversFace = isGridCoord(minA, SECTION_SIZE - 1) && isGridCoord(minB, SECTION_SIZE - 1);
+
+        for (int i = 0; i < 4 && coversFace; i++) {
+            float da = aCoords[i] - minA;
+            float db = bCoords[i] - minB;
+
+            if ((da != 0.0f && da != 1.0f) || (db != 0.0f && db != 1.0f)) {
+                coversFace = false;
+                break;
+            }
+
+            int corner = (int) da | ((int) db << 1);
+            corners |= corner << (i * 2);
+            cornerMask |= 1 << corner;
+
+            var vertex = vertices[i];
+
+            switch (corner) {
+                case 0 -> { u0 = vertex.u; v0 = vertex.v; }
+                case 1 -> { uA = vertex.u; vA = vertex.v; }
+                case 2 -> { uB = vertex.u; vB = vertex.v; }
+                case 3 -> { u3 = vertex.u; v3 = vertex.v; }
+            }
+        }
+
+        if (!coversFace || cornerMask != 0b1111) {
+            // The quad may overlap any number of held quads in its plane
+            this.flushPlane(buffer, (int) plane);
+            return false;
+        }
+
+        int cellIndex = ((int) plane * PLANE_AREA) + ((int) minB * SECTION_SIZE) + (int) minA;
+        int heldKeyId = this.cells[cellIndex];
+
+        if (heldKeyId != 0) {
+            this.cells[cellIndex] = 0;
+            this.emit(buffer, this.keys.get(heldKeyId - 1), (int) plane, (int) minA, (int) minB, 1, 1);
+        }
+
+        var first = vertices[0];
+
+        for (int i = 1; i < 4; i++) {
+            var vertex = vertices[i];
+
+            if (vertex.color != first.color || vertex.light != first.light ||
+                    vertex.vanillaNormal != first.vanillaNormal || vertex.trueNormal != first.trueNormal) {
+                return false;
+            }
+        }
+
+        float stepAU = uA - u0, stepAV = vA - v0;
+        float stepBU = uB - u0, stepBV = vB - v0;
+
+        // The texture must be mapped onto the face without skewing, and each axis of the face must follow one axis of
+        // the texture, otherwise it cannot be repeated by wrapping each texture coordinate separately
+        if (u3 != u0 + stepAU + stepBU || v3 != v0 + stepAV + stepBV) {
+            return false;
+        }
+
+        if (!((stepAV == 0.0f && stepBU == 0.0f && stepAU != 0.0f && stepBV != 0.0f) ||
+                (stepAU == 0.0f && stepBV == 0.0f && stepAV != 0.0f && stepBU != 0.0f))) {
+            return false;
+        }
+
+        var key = this.scratchKey;
+        key.material = material;
+        key.color = first.color;
+        key.light = first.light;
+        key.vanillaNormal = first.vanillaNormal;
+        key.trueNormal = first.trueNormal;
+        key.corners = corners;
+        key.u = u0;
+        key.v = v0;
+        key.stepAU = stepAU;
+        key.stepAV = stepAV;
+        key.stepBU = stepBU;
+        key.stepBV = stepBV;
+
+        int keyId = this.keyIds.getInt(key);
+
+        if (keyId == NO_KEY) {
+            var copy = key.copy(this.maxTextureCoord);
+
+            if (copy.maxSpanA < 1 || copy.maxSpanB < 1) {
+                return false;
+            }
+
+            keyId = this.keys.size();
+
+            this.keys.add(copy);
+            this.keyIds.put(copy, keyId);
+        }
+
+        this.cells[cellIndex] = keyId + 1;
+        this.usedPlanes |= 1 << (int) plane;
+
+        return true;
+    }
+
+    /**
+     * Merges the quads which were added since the last flush, and writes the results to the given buffer.
+     */
+    public void flush(ChunkMeshBufferBuilder buffer) {
+        for (int plane = 0; plane < PLANE_COUNT; plane++) {
+            this.flushPlane(buffer, plane);
+        }
+
+        this.clear();
+    }
+
+    /**
+     * Merges the quads which are held in the given plane, and writes the results to the given buffer.
+     */
+    private void flushPlane(ChunkMeshBufferBuilder buffer, int plane) {
+        if ((this.usedPlanes & (1 << plane)) == 0) {
+            return;
+        }
+
+        var cells = this.cells;
+        int planeStart = plane * PLANE_AREA;
+
+        for (int b = 0; b < SECTION_SIZE; b++) {
+            for (int a = 0; a < SECTION_SIZE; a++) {
+                int keyId = cells[planeStart + (b * SECTION_SIZE) + a];
+
+                if (keyId == 0) {
+                    continue;
+                }
+
+                var key = this.keys.get(keyId - 1);
+
+                // Extend the quad along the first axis, then extend the whole row along the second axis
+                int spanA = 1;
+
+                while (spanA < key.maxSpanA && a + spanA < SECTION_SIZE &&
+                        cells[planeStart + (b * SECTION_SIZE) + a + spanA] == keyId) {
+                    spanA++;
+                }
+
+                int spanB = 1;
+
+                while (spanB < key.maxSpanB && b + spanB < SECTION_SIZE &&
+                        isRowFilled(cells, planeStart + ((b + spanB) * SECTION_SIZE) + a, spanA, keyId)) {
+                    spanB++;
+                }
+
+                for (int j = 0; j < spanB; j++) {
+                    int rowStart = planeStart + ((b + j) * SECTION_SIZE) + a;
+                    Arrays.fill(cells, rowStart, rowStart + spanA, 0);
+                }
+
+                this.emit(buffer, key, plane, a, b, spanA, spanB);
+            }
+        }
+
+        // Every cell of the plane was cleared as it was written
+        this.usedPlanes &= ~(1 << plane);
+    }
+
+    /**
+     * Forgets any quads which have not been flushed.
+     */
+    public void clear() {
+        for (int plane = 0; plane < PLANE_COUNT; plane++) {
+            if ((this.usedPlanes & (1 << plane)) != 0) {
+                Arrays.fill(this.cells, plane * PLANE_AREA, (plane + 1) * PLANE_AREA, 0);
+            }
+        }
+
+        this.usedPlanes = 0;
+
+        this.keys.clear();
+        this.keyIds.clear();
+    }
+
+    private void emit(ChunkMeshBufferBuilder buffer, QuadKey key, int plane, int a, int b, int spanA, int spanB) {
+        var vertices = this.vertices;
+
+        // Quads which were not merged with anything are written exactly as they were received
+        boolean tiled = spanA > 1 || spanB > 1;
+
+        float minU = Float.POSITIVE_INFINITY, minV = Float.POSITIVE_INFINITY;
+
+        for (int i = 0; i < 4; i++) {
+            int corner = (key.corners >> (i * 2)) & 3;
+
+            int da = (corner & 1) * spanA;
+            int db = (corner >> 1) * spanB;
+
+            var vertex = vertices[i];
+            this.unproject(vertex, plane, a + da, b + db);
+
+            vertex.color = key.color;
+            vertex.light = key.light;
+            vertex.vanillaNormal = key.vanillaNormal;
+            vertex.trueNormal = key.trueNormal;
+
+            vertex.u = key.u + (da * key.stepAU) + (db * key.stepBU);
+            vertex.v = key.v + (da * key.stepAV) + (db * key.stepBV);
+
+            minU = Math.min(minU, vertex.u);
+            minV = Math.min(minV, vertex.v);
+
+            if (tiled) {
+                vertex.tileMinU = key.tileMinU;
+                vertex.tileMinV = key.tileMinV;
+                vertex.tileSizeU = key.tileSizeU;
+                vertex.tileSizeV = key.tileSizeV;
+            } else {
+                vertex.tileMinU = 0.0f;
+                vertex.tileMinV = 0.0f;
+                vertex.tileSizeU = 0.0f;
+                vertex.tileSizeV = 0.0f;
+            }
+        }
+
+        if (tiled) {
+            // When the texture is flipped along an axis, the coordinates run below the start of the texture region.
+            // Moving them forwards by whole repetitions keeps them within the encodable range without changing the
+            // texels which are sampled.
+            float shiftU = Math.max(0.0f, key.tileMinU - minU);
+            float shiftV = Math.max(0.0f, key.tileMinV - minV);
+
+            for (var vertex : vertices) {
+                vertex.u += shiftU;
+                vertex.v += shiftV;
+            }
+        }
+
+        buffer.write(vertices, key.material);
+    }
+
+    private void project(ChunkVertexEncoder.Vertex vertex, int index) {
+        switch (this.axis) {
+            case X -> { this.planeCoords[index] = vertex.x; this.aCoords[index] = vertex.z; this.bCoords[index] = vertex.y; }
+            case Y -> { this.planeCoords[index] = vertex.y; this.aCoords[index] = vertex.x; this.bCoords[index] = vertex.z; }
+            case Z -> { this.planeCoords[index] = vertex.z; this.aCoords[index] = vertex.x; this.bCoords[index] = vertex.y; }
+        }
+    }
+
+    private void unproject(ChunkVertexEncoder.Vertex vertex, int plane, int a, int b) {
+        switch (this.axis) {
+            case X -> { vertex.x = plane; vertex.z = a; vertex.y = b; }
+            case Y -> { vertex.y = plane; vertex.x = a; vertex.z = b; }
+            case Z -> { vertex.z = plane; vertex.x = a; vertex.y = b; }
+        }
+    }
+
+    private static boolean isRowFilled(int[] cells, int start, int length, int keyId) {
+        for (int i = 0; i < length; i++) {
+            if (cells[start + i] != keyId) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isGridCoord(float value, int max) {
+        return value >= 0.0f && value <= max && value == (int) value;
+    }
+
+    /**
+     * Everything about a quad other than its position, which must match for two quads to be merged.
+     */
+    private static final class QuadKey {
+        private Material material;
+
+        private int color, light;
+        private int vanillaNormal, trueNormal;
+
+        private int corners;
+
+        // The texture coordinates of the first corner, and how they change along each axis of the face
+        private float u, v;
+        private float stepAU, stepAV, stepBU, stepBV;
+
+        // Derived from the above, and so not compared
+        private float tileMinU, tileMinV, tileSizeU, tileSizeV;
+        private int maxSpanA, maxSpanB;
+
+        private QuadKey copy(float maxTextureCoord) {
+            var copy = new QuadKey();
+            copy.material = this.material;
+            copy.color = this.color;
+            copy.light = this.light;
+            copy.vanillaNormal = this.vanillaNormal;
+            copy.trueNormal = this.trueNormal;
+            copy.corners = this.corners;
+            copy.u = this.u;
+            copy.v = this.v;
+            copy.stepAU = this.stepAU;
+            copy.stepAV = this.stepAV;
+            copy.stepBU = this.stepBU;
+            copy.stepBV = this.stepBV;
+
+            // Only one of the steps along each texture axis is non-zero
+            float stepU = this.stepAU + this.stepBU;
+            float stepV = this.stepAV + this.stepBV;
+
+            copy.tileMinU = Math.min(this.u, this.u + stepU);
+            copy.tileMinV = Math.min(this.v, this.v + stepV);
+            copy.tileSizeU = Math.abs(stepU);
+            copy.tileSizeV = Math.abs(stepV);
+
+            // The number of repetitions which fit before the texture coordinates overflow
+            int maxRepeatU = (int) ((maxTextureCoord - copy.tileMinU) / copy.tileSizeU);
+            int maxRepeatV = (int) ((maxTextureCoord - copy.tileMinV) / copy.tileSizeV);
+
+            copy.maxSpanA = this.stepAU != 0.0f ? maxRepeatU : maxRepeatV;
+            copy.maxSpanB = this.stepBU != 0.0f ? maxRepeatU : maxRepeatV;
+
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QuadKey that)) return false;
+
+            return this.material == that.material &&
+                    this.color == that.color &&
+                    this.light == that.light &&
+                    this.vanillaNormal == that.vanillaNormal &&
+                    this.trueNormal == that.trueNormal &&
+                    this.corners == that.corners &&
+                    Float.compare(this.u, that.u) == 0 &&
+                    Float.compare(this.v, that.v) == 0 &&
+                    Float.compare(this.stepAU, that.stepAU) == 0 &&
+                    Float.compare(this.stepAV, that.stepAV) == 0 &&
+                    Float.compare(this.stepBU, that.stepBU) == 0 &&
+                    Float.compare(this.stepBV, that.stepBV) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(this.material);
+            result = 31 * result + this.color;
+            result = 31 * result + this.light;
+            result = 31 * result + this.vanillaNormal;
+            result = 31 * result + this.trueNormal;
+            result = 31 * result + this.corners;
+            result = 31 * result + Float.floatToIntBits(this.u);
+            result = 31 * result + Float.floatToIntBits(this.v);
+            result = 31 * result + Float.floatToIntBits(this.stepAU);
+            result = 31 * result + Float.floatToIntBits(this.stepAV);
+            result = 31 * result + Float.floatToIntBits(this.stepBU);
+            result = 31 * result + Float.floatToIntBits(this.stepBV);
+            return result;
+        }
+    }
+}
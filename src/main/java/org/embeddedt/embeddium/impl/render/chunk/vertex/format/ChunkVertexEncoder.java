@@ -5,6 +5,18 @@ import org.embeddedt.embeddium.impl.render.chunk.terrain.material.Material;
 public interface ChunkVertexEncoder {
     long write(long ptr, Material material, Vertex vertex, int sectionIndex);
 
+    /**
+     * Writes every vertex of a quad at once. Encoders can override this to avoid repeating the work which is shared
+     * between the vertices, but the output must be the same as writing each vertex in turn.
+     */
+    default long writeQuad(long ptr, Material material, Vertex[] vertices, int sectionIndex) {
+        for (Vertex vertex : vertices) {
+            ptr = this.write(ptr, material, vertex, sectionIndex);
+        }
+
+        return ptr;
+    }
+
     class Vertex {
         public float x;
         public float y;
@@ -16,6 +28,12 @@ public interface ChunkVertexEncoder {
         public int vanillaNormal;
         public int trueNormal;
 
+        // The region of the texture which repeats across the quad, or a zero size if the texture does not repeat
+        public float tileMinU;
+        public float tileMinV;
+        public float tileSizeU;
+        public float tileSizeV;
+
         public static Vertex[] uninitializedQuad() {
             Vertex[] vertices = new Vertex[4];
 
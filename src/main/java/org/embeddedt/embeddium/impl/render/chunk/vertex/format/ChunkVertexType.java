@@ -22,6 +22,14 @@ public interface ChunkVertexType {
      */
     float getTextureScale();
 
+    /**
+     * @return The largest texture coordinate which can be encoded for quads that repeat a region of the texture, or
+     * zero if the vertex type cannot repeat textures
+     */
+    default float getMaxTiledTextureCoord() {
+        return 0.0f;
+    }
+
     GlVertexFormat getVertexFormat();
 
     /**
@@ -2,6 +2,7 @@ package org.embeddedt.embeddium.impl.render.chunk.vertex.format.impl;
 
 import org.embeddedt.embeddium.impl.gl.attribute.GlVertexAttributeFormat;
 import org.embeddedt.embeddium.impl.gl.attribute.GlVertexFormat;
+import org.embeddedt.embeddium.impl.render.chunk.terrain.material.Material;
 import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexEncoder;
 import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexType;
 import org.lwjgl.system.MemoryUtil;
@@ -19,7 +20,7 @@ public class CompactChunkVertex implements ChunkVertexType {
     public static final int STRIDE = 20;
 
     private static final int POSITION_MAX_VALUE = 65536;
-    private static final int TEXTURE_MAX_VALUE = 32768;
+    static final int TEXTURE_MAX_VALUE = 32768;
 
     private static final float MODEL_ORIGIN = 8.0f;
     private static final float MODEL_RANGE = 32.0f;
@@ -50,23 +51,7 @@ public class CompactChunkVertex implements ChunkVertexType {
 
     @Override
     public ChunkVertexEncoder createEncoder() {
-        return (ptr, material, vertex, sectionIndex) -> {
-            MemoryUtil.memPutShort(ptr + 0, encodePosition(vertex.x));
-            MemoryUtil.memPutShort(ptr + 2, encodePosition(vertex.y));
-            MemoryUtil.memPutShort(ptr + 4, encodePosition(vertex.z));
-
-            MemoryUtil.memPutByte(ptr + 6, (byte) (material.bits() & 0xFF));
-            MemoryUtil.memPutByte(ptr + 7, (byte) (sectionIndex & 0xFF));
-
-            MemoryUtil.memPutInt(ptr + 8, vertex.color);
-
-            MemoryUtil.memPutShort(ptr + 12, encodeTexture(vertex.u));
-            MemoryUtil.memPutShort(ptr + 14, encodeTexture(vertex.v));
-
-            MemoryUtil.memPutInt(ptr + 16, vertex.light);
-
-            return ptr + STRIDE;
-        };
+        return new Encoder();
     }
 
     @Override
@@ -84,7 +69,46 @@ public class CompactChunkVertex implements ChunkVertexType {
         return (((float)Short.toUnsignedInt(value)) / MODEL_SCALE_INV) - MODEL_ORIGIN;
     }
 
-    private static short encodeTexture(float value) {
+    static short encodeTexture(float value) {
         return (short) (Math.round(value * TEXTURE_MAX_VALUE) & 0xFFFF);
     }
+
+    private static class Encoder implements ChunkVertexEncoder {
+        @Override
+        public long write(long ptr, Material material, Vertex vertex, int sectionIndex) {
+            writeVertex(ptr, (byte) (material.bits() & 0xFF), (byte) (sectionIndex & 0xFF), vertex);
+
+            return ptr + STRIDE;
+        }
+
+        @Override
+        public long writeQuad(long ptr, Material material, Vertex[] vertices, int sectionIndex) {
+            // The draw parameters are the same for every vertex of the quad
+            byte materialBits = (byte) (material.bits() & 0xFF);
+            byte sectionBits = (byte) (sectionIndex & 0xFF);
+
+            for (Vertex vertex : vertices) {
+                writeVertex(ptr, materialBits, sectionBits, vertex);
+                ptr += STRIDE;
+            }
+
+            return ptr;
+        }
+
+        private static void writeVertex(long ptr, byte materialBits, byte sectionBits, Vertex vertex) {
+            MemoryUtil.memPutShort(ptr + 0, encodePosition(vertex.x));
+            MemoryUtil.memPutShort(ptr + 2, encodePosition(vertex.y));
+            MemoryUtil.memPutShort(ptr + 4, encodePosition(vertex.z));
+
+            MemoryUtil.memPutByte(ptr + 6, materialBits);
+            MemoryUtil.memPutByte(ptr + 7, sectionBits);
+
+            MemoryUtil.memPutInt(ptr + 8, vertex.color);
+
+            MemoryUtil.memPutShort(ptr + 12, encodeTexture(vertex.u));
+            MemoryUtil.memPutShort(ptr + 14, encodeTexture(vertex.v));
+
+            MemoryUtil.memPutInt(ptr + 16, vertex.light);
+        }
+    }
 }
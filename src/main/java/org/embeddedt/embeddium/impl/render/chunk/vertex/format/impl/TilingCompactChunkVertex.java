@@ -0,0 +1,61 @@
+package org.embeddedt.embeddium.impl.render.chunk.vertex.format.impl;
+
+import org.embeddedt.embeddium.impl.gl.attribute.GlVertexAttributeFormat;
+import org.embeddedt.embeddium.impl.gl.attribute.GlVertexFormat;
+import org.embeddedt.embeddium.impl.render.chunk.vertex.format.ChunkVertexEncoder;
+import org.lwjgl.system.MemoryUtil;
+
+import java.util.Map;
+
+/**
+ * A variant of {@link CompactChunkVertex} which can repeat a region of the texture across a quad, so that the faces of
+ * neighboring blocks can be merged into a single quad. The region is stored alongside the regular attributes, and the
+ * fragment shader wraps the texture coordinates into it.
+ */
+public class TilingCompactChunkVertex extends CompactChunkVertex {
+    public static final int STRIDE = 28;
+
+    public static final GlVertexFormat VERTEX_FORMAT = GlVertexFormat.builder(STRIDE)
+            .addElement("a_PosId", 0, GlVertexAttributeFormat.UNSIGNED_SHORT, 4, false, true)
+            .addElement("a_Color", 8, GlVertexAttributeFormat.UNSIGNED_BYTE, 4, true, false)
+            .addElement("a_TexCoord", 12, GlVertexAttributeFormat.UNSIGNED_SHORT, 2, false, false)
+            .addElement("a_LightCoord", 16, GlVertexAttributeFormat.UNSIGNED_SHORT, 2, false, true)
+            .addElement("a_TexTile", 20, GlVertexAttributeFormat.UNSIGNED_SHORT, 4, false, false)
+            .build();
+
+    // The largest value which the unsigned texture coordinates can hold
+    private static final float MAX_TEXTURE_COORD = 65535.0f / TEXTURE_MAX_VALUE;
+
+    @Override
+    public float getMaxTiledTextureCoord() {
+        return MAX_TEXTURE_COORD;
+    }
+
+    @Override
+    public GlVertexFormat getVertexFormat() {
+        return VERTEX_FORMAT;
+    }
+
+    @Override
+    public ChunkVertexEncoder createEncoder() {
+        var encoder = super.createEncoder();
+
+        return (ptr, material, vertex, sectionIndex) -> {
+            encoder.write(ptr, material, vertex, sectionIndex);
+
+            MemoryUtil.memPutShort(ptr + 20, encodeTexture(vertex.tileMinU));
+            MemoryUtil.memPutShort(ptr + 22, encodeTexture(vertex.tileMinV));
+            MemoryUtil.memPutShort(ptr + 24, encodeTexture(vertex.tileSizeU));
+            MemoryUtil.memPutShort(ptr + 26, encodeTexture(vertex.tileSizeV));
+
+            return ptr + STRIDE;
+        };
+    }
+
+    @Override
+    public Map<String, String> getDefines() {
+        var map = super.getDefines();
+        map.put("USE_TEXTURE_TILING", "");
+        return map;
+    }
+}
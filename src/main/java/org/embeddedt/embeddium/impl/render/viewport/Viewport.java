@@ -58,6 +58,21 @@ public final class Viewport {
         );
     }
 
+    /**
+     * {@return true if the given viewport is known to have the same frustum and camera position as this one, meaning
+     * that any visibility test will give the same result for both}
+     */
+    public boolean hasSameView(Viewport other) {
+        return this.frustum.equals(other.frustum) &&
+                this.transform.x == other.transform.x &&
+                this.transform.y == other.transform.y &&
+                this.transform.z == other.transform.z;
+    }
+
+    public Frustum getFrustum() {
+        return this.frustum;
+    }
+
     public CameraTransform getTransform() {
         return this.transform;
     }
@@ -1,5 +1,47 @@
 package org.embeddedt.embeddium.impl.render.viewport.frustum;
 
 public interface Frustum {
+    /**
+     * The box is completely outside the frustum.
+     */
+    int OUTSIDE = 0;
+
+    /**
+     * The box may be partially inside the frustum.
+     */
+    int INTERSECT = 1;
+
+    /**
+     * The box is completely inside the frustum.
+     */
+    int INSIDE = 2;
+
     boolean testAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ);
+
+    /**
+     * Classifies the given box against the frustum. A box is only reported as {@link #OUTSIDE} if {@link #testAab}
+     * would return false for it. Implementations which cannot cheaply determine whether a box is fully inside may
+     * report {@link #INTERSECT} instead.
+     *
+     * @return One of {@link #OUTSIDE}, {@link #INTERSECT} or {@link #INSIDE}
+     */
+    default int intersectAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        return this.testAab(minX, minY, minZ, maxX, maxY, maxZ) ? INTERSECT : OUTSIDE;
+    }
+
+    /**
+     * Classifies a batch of boxes against the frustum, as if by calling {@link #intersectAab} for each box. The bounds
+     * are passed as separate arrays for each component, so that implementations can test several boxes against the
+     * same plane at once.
+     *
+     * @param count   The number of boxes to test, starting from the first element of each array
+     * @param results The array which the classification of each box is written to
+     */
+    default void intersectAabs(float[] minX, float[] minY, float[] minZ,
+                               float[] maxX, float[] maxY, float[] maxZ,
+                               int count, byte[] results) {
+        for (int i = 0; i < count; i++) {
+            results[i] = (byte) this.intersectAab(minX[i], minY[i], minZ[i], maxX[i], maxY[i], maxZ[i]);
+        }
+    }
 }
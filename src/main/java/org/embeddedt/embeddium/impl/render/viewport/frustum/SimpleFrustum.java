@@ -1,16 +1,56 @@
 package org.embeddedt.embeddium.impl.render.viewport.frustum;
 
+import org.jetbrains.annotations.Nullable;
 import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 
 public final class SimpleFrustum implements Frustum {
     private final FrustumIntersection frustum;
 
+    /**
+     * A copy of the matrix the frustum planes were derived from, if known. This is used to detect whether two frustums
+     * are identical.
+     */
+    @Nullable
+    private final Matrix4fc matrix;
+
     public SimpleFrustum(FrustumIntersection frustumIntersection) {
         this.frustum = frustumIntersection;
+        this.matrix = null;
+    }
+
+    public SimpleFrustum(FrustumIntersection frustumIntersection, Matrix4fc matrix) {
+        this.frustum = frustumIntersection;
+        this.matrix = new Matrix4f(matrix);
     }
 
     @Override
     public boolean testAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
         return this.frustum.testAab(minX, minY, minZ, maxX, maxY, maxZ);
     }
+
+    @Override
+    public int intersectAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        return switch (this.frustum.intersectAab(minX, minY, minZ, maxX, maxY, maxZ)) {
+            case FrustumIntersection.INSIDE -> INSIDE;
+            case FrustumIntersection.INTERSECT -> INTERSECT;
+            // Otherwise, the index of the plane which the box is outside of
+            default -> OUTSIDE;
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        return obj instanceof SimpleFrustum other && this.matrix != null && this.matrix.equals(other.matrix);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.matrix != null ? this.matrix.hashCode() : System.identityHashCode(this);
+    }
 }
@@ -0,0 +1,146 @@
+package org.embeddedt.embeddium.impl.util.collections;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A Chase-Lev work-stealing deque. The owning thread pushes and pops elements at the bottom of the deque without
+ * taking any locks, while other threads may concurrently steal elements from the top. Contention only occurs when
+ * the owner and a thief race for the last remaining element.
+ *
+ * <p>{@link #push(Object)} and {@link #pop()} must only ever be called by the owning thread. {@link #steal()} may be
+ * called from any thread.</p>
+ */
+public final class WorkStealingDeque<E> {
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long top;
+    private volatile long bottom;
+
+    private volatile Object[] elements;
+
+    public WorkStealingDeque() {
+        this(16);
+    }
+
+    public WorkStealingDeque(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+
+        this.elements = new Object[capacity];
+    }
+
+    /**
+     * Adds an element to the bottom of the deque. Must only be called by the owning thread.
+     */
+    public void push(@NotNull E e) {
+        long b = this.bottom;
+        long t = this.top;
+        var elements = this.elements;
+
+        if (b - t >= elements.length) {
+            elements = this.grow(elements, t, b);
+        }
+
+        elements[(int) (b & (elements.length - 1))] = e;
+
+        // The volatile write publishes the element to thieves
+        this.bottom = b + 1;
+    }
+
+    /**
+     * Removes the most recently pushed element from the bottom of the deque. Must only be called by the owning thread.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable E pop() {
+        long b = this.bottom - 1;
+        var elements = this.elements;
+
+        this.bottom = b;
+
+        long t = this.top;
+
+        if (t > b) {
+            // The deque was already empty
+            this.bottom = b + 1;
+            return null;
+        }
+
+        int index = (int) (b & (elements.length - 1));
+        var e = (E) elements[index];
+
+        if (t == b) {
+            // This is the last element, so we must race any thieves for it
+            if (!TOP.compareAndSet(this, t, t + 1)) {
+                e = null;
+            }
+
+            this.bottom = b + 1;
+        }
+
+        if (e != null) {
+            // Thieves can no longer reach this slot, so release the reference
+            elements[index] = null;
+        }
+
+        return e;
+    }
+
+    /**
+     * Removes the oldest element from the top of the deque. May be called from any thread. This method returns null
+     * if the deque is empty or if another thread took the element first.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable E steal() {
+        long t = this.top;
+        long b = this.bottom;
+
+        if (t >= b) {
+            return null;
+        }
+
+        var elements = this.elements;
+        var e = (E) elements[(int) (t & (elements.length - 1))];
+
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+
+        return e;
+    }
+
+    /**
+     * {@return an estimate of the number of elements in the deque}
+     */
+    public int size() {
+        return (int) Math.max(0, this.bottom - this.top);
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    private Object[] grow(Object[] elements, long t, long b) {
+        var grown = new Object[elements.length << 1];
+
+        for (long i = t; i < b; i++) {
+            grown[(int) (i & (grown.length - 1))] = elements[(int) (i & (elements.length - 1))];
+        }
+
+        this.elements = grown;
+
+        return grown;
+    }
+}
@@ -5,6 +5,15 @@ import net.minecraft.util.Mth;
 
 public class BoxBlur {
 
+    // The color channels are summed in separate lanes of a long, so that the whole window can be updated with a
+    // single addition and subtraction. Each lane is wide enough to hold the sum of any window which fits in an array.
+    private static final int LANE_BITS = 21;
+    private static final long LANE_MASK = (1L << LANE_BITS) - 1;
+
+    private static final int BLUE_LANE = 0;
+    private static final int GREEN_LANE = LANE_BITS;
+    private static final int RED_LANE = LANE_BITS * 2;
+
     public static void blur(ColorBuffer buf, ColorBuffer tmp, int radius) {
         if (buf.width != tmp.width || buf.height != tmp.height) {
             throw new IllegalArgumentException("Color buffers must have same dimensions");
@@ -14,63 +23,50 @@ public class BoxBlur {
             return;
         }
 
-        blurImpl(buf.data, tmp.data, buf.width, buf.height, radius); // X-axis
-        blurImpl(tmp.data, buf.data, buf.width, buf.height, radius); // Y-axis
+        long[] row = tmp.getRowScratch();
+
+        blurImpl(buf.data, tmp.data, row, buf.width, buf.height, radius); // X-axis
+        blurImpl(tmp.data, buf.data, row, buf.width, buf.height, radius); // Y-axis
     }
 
-    private static void blurImpl(int[] src, int[] dst, int width, int height, int radius) {
+    private static void blurImpl(int[] src, int[] dst, long[] row, int width, int height, int radius) {
         int multiplier = getAveragingMultiplier((radius * 2) + 1);
 
         for (int y = 0; y < height; y++) {
             int srcRowOffset = ColorBuffer.getIndex(0, y, width);
 
-            int red, green, blue;
-
-            {
-                int color = src[srcRowOffset];
-                red = ColorARGB.unpackRed(color);
-                green = ColorARGB.unpackGreen(color);
-                blue = ColorARGB.unpackBlue(color);
+            // Each color is read twice as the window slides over it, so it is only split into lanes once
+            for (int x = 0; x < width; x++) {
+                row[x] = packLanes(src[srcRowOffset + x]);
             }
 
             // Extend the window backwards by repeating the colors at the edge N times
-            red += red * radius;
-            green += green * radius;
-            blue += blue * radius;
+            long sum = row[0] * (radius + 1);
 
             // Extend the window forwards by sampling ahead N times
             for (int x = 1; x <= radius; x++) {
-                var color = src[srcRowOffset + x];
-                red += ColorARGB.unpackRed(color);
-                green += ColorARGB.unpackGreen(color);
-                blue += ColorARGB.unpackBlue(color);
+                sum += row[Math.min(width - 1, x)];
             }
 
             for (int x = 0; x < width; x++) {
                 // The x and y coordinates are transposed to flip the output image
                 //noinspection SuspiciousNameCombination
-                dst[ColorBuffer.getIndex(y, x, width)] = averageRGB(red, green, blue, multiplier);
-
-                {
-                    // Remove the color values that are behind the window
-                    var color = src[srcRowOffset + Math.max(0, x - radius)];
-
-                    red -= ColorARGB.unpackRed(color);
-                    green -= ColorARGB.unpackGreen(color);
-                    blue -= ColorARGB.unpackBlue(color);
-                }
-
-                {
-                    // Add the color values that are ahead of the window
-                    var color = src[srcRowOffset + Math.min(width - 1, x + radius + 1)];
-                    red += ColorARGB.unpackRed(color);
-                    green += ColorARGB.unpackGreen(color);
-                    blue += ColorARGB.unpackBlue(color);
-                }
+                dst[ColorBuffer.getIndex(y, x, width)] = averageRGB((int) ((sum >>> RED_LANE) & LANE_MASK),
+                        (int) ((sum >>> GREEN_LANE) & LANE_MASK), (int) ((sum >>> BLUE_LANE) & LANE_MASK), multiplier);
+
+                // Remove the color values that are behind the window, and add the color values that are ahead of it
+                sum -= row[Math.max(0, x - radius)];
+                sum += row[Math.min(width - 1, x + radius + 1)];
             }
         }
     }
 
+    private static long packLanes(int color) {
+        return ((long) ColorARGB.unpackRed(color) << RED_LANE) |
+                ((long) ColorARGB.unpackGreen(color) << GREEN_LANE) |
+                ((long) ColorARGB.unpackBlue(color) << BLUE_LANE);
+    }
+
     /**
      * Pre-computes a multiplier that can be used to avoid costly division when averaging the color data in the
      * sliding window.
@@ -112,6 +108,8 @@ public class BoxBlur {
         protected final int[] data;
         protected final int width, height;
 
+        private long[] rowScratch;
+
         public ColorBuffer(int width, int height) {
             this.data = new int[width * height];
             this.width = width;
@@ -130,5 +128,13 @@ public class BoxBlur {
         public static int getIndex(int x, int y, int width) {
             return (y * width) + x;
         }
+
+        private long[] getRowScratch() {
+            if (this.rowScratch == null) {
+                this.rowScratch = new long[this.width];
+            }
+
+            return this.rowScratch;
+        }
     }
 }
@@ -0,0 +1,123 @@
+package org.embeddedt.embeddium.impl.util.sorting;
+
+import java.util.Arrays;
+
+/**
+ * A stable LSD radix sort over float keys, which reuses its arrays between sorts so that it doesn't allocate once they
+ * have grown to fit the largest input. The resulting order is the same as {@link MergeSort#mergeSort(int[], float[])},
+ * from the largest key to the smallest, with equal keys kept in their original order.
+ *
+ * <p>This class is not thread-safe, and should be kept per thread.</p>
+ */
+public class RadixSort {
+    private static final int DIGIT_BITS = 8;
+    private static final int DIGIT_COUNT = Integer.SIZE / DIGIT_BITS;
+    private static final int BUCKET_COUNT = 1 << DIGIT_BITS;
+
+    private final int[] histograms = new int[DIGIT_COUNT * BUCKET_COUNT];
+
+    private float[] keys = new float[0];
+
+    private int[] sortKeys = new int[0], sortKeysTemp = new int[0];
+    private int[] indices = new int[0], indicesTemp = new int[0];
+
+    /**
+     * {@return an array which can hold at least the given number of keys} The keys to sort must be written to the
+     * start of this array before calling {@link #sortDescending(int)}.
+     */
+    public float[] getKeyBuffer(int length) {
+        if (this.keys.length < length) {
+            this.keys = new float[length];
+            this.sortKeys = new int[length];
+            this.sortKeysTemp = new int[length];
+            this.indices = new int[length];
+            this.indicesTemp = new int[length];
+        }
+
+        return this.keys;
+    }
+
+    /**
+     * Sorts the first {@code length} keys of the key buffer from largest to smallest.
+     *
+     * @return An array whose first {@code length} elements are the indices of the keys in sorted order. The array is
+     * only valid until the next call.
+     */
+    public int[] sortDescending(int length) {
+        float[] keys = this.keys;
+
+        int[] sortKeys = this.sortKeys, sortKeysTemp = this.sortKeysTemp;
+        int[] indices = this.indices, indicesTemp = this.indicesTemp;
+
+        int[] histograms = this.histograms;
+        Arrays.fill(histograms, 0);
+
+        for (int i = 0; i < length; i++) {
+            int key = toDescendingKey(keys[i]);
+
+            sortKeys[i] = key;
+            indices[i] = i;
+
+            for (int digit = 0; digit < DIGIT_COUNT; digit++) {
+                histograms[(digit * BUCKET_COUNT) + getDigit(key, digit)]++;
+            }
+        }
+
+        for (int digit = 0; digit < DIGIT_COUNT; digit++) {
+            int histogramOffset = digit * BUCKET_COUNT;
+
+            // Nothing would move if every key has the same value for this digit, which is common for the high digits
+            if (length == 0 || histograms[histogramOffset + getDigit(sortKeys[0], digit)] == length) {
+                continue;
+            }
+
+            int offset = 0;
+
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                int count = histograms[histogramOffset + bucket];
+                histograms[histogramOffset + bucket] = offset;
+                offset += count;
+            }
+
+            for (int i = 0; i < length; i++) {
+                int key = sortKeys[i];
+                int dst = histograms[histogramOffset + getDigit(key, digit)]++;
+
+                sortKeysTemp[dst] = key;
+                indicesTemp[dst] = indices[i];
+            }
+
+            int[] swapKeys = sortKeys;
+            sortKeys = sortKeysTemp;
+            sortKeysTemp = swapKeys;
+
+            int[] swapIndices = indices;
+            indices = indicesTemp;
+            indicesTemp = swapIndices;
+        }
+
+        // Keep track of which arrays hold the results, as they may have been swapped an odd number of times
+        this.sortKeys = sortKeys;
+        this.sortKeysTemp = sortKeysTemp;
+        this.indices = indices;
+        this.indicesTemp = indicesTemp;
+
+        return indices;
+    }
+
+    /**
+     * Maps a float to an int which sorts in the opposite order when compared as an unsigned integer.
+     */
+    private static int toDescendingKey(float value) {
+        // Adding zero turns negative zero into positive zero, since they compare as equal
+        int bits = Float.floatToIntBits(value + 0.0f);
+
+        // Flip every bit of negative numbers, and only the sign bit of positive numbers, to sort them in ascending
+        // order, and then flip every bit again to reverse that order
+        return ~(bits ^ ((bits >> 31) | Integer.MIN_VALUE));
+    }
+
+    private static int getDigit(int key, int digit) {
+        return (key >>> (digit * DIGIT_BITS)) & (BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package org.embeddedt.embeddium.impl.world;
+
+import it.unimi.dsi.fastutil.ints.Int2ReferenceMap;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Provides the block entities of a chunk grouped by section, so that they can be copied without scanning every block
+ * entity in the chunk.
+ */
+public interface BlockEntityIndexExtended {
+    static BlockEntityIndexExtended of(LevelChunk chunk) {
+        return (BlockEntityIndexExtended) chunk;
+    }
+
+    /**
+     * Returns the block entities within the given section, keyed by {@link WorldSlice#getLocalBlockIndex(int, int, int)}.
+     * The returned map is owned by the chunk and must not be modified or retained.
+     *
+     * @param sectionIndex The index of the section within the chunk
+     * @return The block entities within the section, or null if there are none
+     */
+    @Nullable Int2ReferenceMap<BlockEntity> sodium$getSectionBlockEntities(int sectionIndex);
+}
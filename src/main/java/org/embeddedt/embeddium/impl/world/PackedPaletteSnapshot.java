@@ -0,0 +1,132 @@
+package org.embeddedt.embeddium.impl.world;
+
+import net.minecraft.world.level.chunk.GlobalPalette;
+import net.minecraft.world.level.chunk.Palette;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A read-only view of the packed contents of a paletted container. Values are decoded from the packed storage when
+ * they are requested, rather than unpacking every entry into an object array up front.
+ *
+ * <p>The snapshot shares the storage array of the container it was created from, so the container must not be
+ * modified afterwards. This is the case for the copies held by cloned chunk sections.</p>
+ */
+public final class PackedPaletteSnapshot<T> {
+    // Used in place of the empty storage of a zero-bit container, so that every index decodes to the first entry
+    private static final long[] ZERO_BIT_DATA = new long[1];
+
+    private final long[] data;
+
+    private final int bits;
+    private final long mask;
+    private final int valuesPerLong;
+
+    private final int size;
+
+    // The entries of the palette, or null if the palette is backed by the global registry
+    private final @Nullable T[] values;
+    private final Palette<T> palette;
+
+    @SuppressWarnings("unchecked")
+    public PackedPaletteSnapshot(long[] data, int bits, int size, Palette<T> palette) {
+        this.bits = bits;
+        this.size = size;
+        this.palette = palette;
+
+        if (bits == 0) {
+            this.data = ZERO_BIT_DATA;
+            this.mask = 0L;
+            this.valuesPerLong = Integer.MAX_VALUE;
+        } else {
+            this.data = data;
+            this.mask = (1L << bits) - 1L;
+            this.valuesPerLong = 64 / bits;
+        }
+
+        if (palette instanceof GlobalPalette) {
+            // Copying the entire registry would cost far more than looking up the few entries which are used
+            this.values = null;
+        } else {
+            var values = (T[]) new Object[palette.getSize()];
+
+            for (int i = 0; i < values.length; i++) {
+                values[i] = palette.valueFor(i);
+            }
+
+            this.values = values;
+        }
+    }
+
+    /**
+     * {@return the value at the given index of the container}
+     */
+    public T get(int index) {
+        int wordIndex = index / this.valuesPerLong;
+        int shift = (index - (wordIndex * this.valuesPerLong)) * this.bits;
+
+        return this.valueFor((int) ((this.data[wordIndex] >>> shift) & this.mask));
+    }
+
+    /**
+     * Unpacks every value in the container into the given array, which must have the same size as the container.
+     */
+    public void unpack(T[] out) {
+        if (out.length != this.size) {
+            throw new IllegalArgumentException("Array has mismatched size");
+        }
+
+        if (this.bits == 0) {
+            var value = Objects.requireNonNull(this.valueFor(0), "Palette must have default entry");
+
+            for (int i = 0; i < out.length; i++) {
+                out[i] = value;
+            }
+
+            return;
+        }
+
+        int index = 0;
+
+        // Each word is decoded in full, rather than seeking to every index
+        for (long word : this.data) {
+            for (int j = 0; j < this.valuesPerLong; j++) {
+                out[index] = Objects.requireNonNull(this.valueFor((int) (word & this.mask)),
+                        "Palette does not contain entry for value in storage");
+                word >>>= this.bits;
+
+                if (++index >= this.size) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Unpacks the values within the given box (inclusive) into the given array, using the same layout as the indices
+     * of a 16x16x16 section. Values outside the box are left untouched.
+     */
+    public void unpack(T[] out, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (out.length != this.size) {
+            throw new IllegalArgumentException("Array has mismatched size");
+        }
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                int rowIndex = (y << 8) | (z << 4);
+
+                for (int x = minX; x <= maxX; x++) {
+                    out[rowIndex | x] = Objects.requireNonNull(this.get(rowIndex | x),
+                            "Palette does not contain entry for value in storage");
+                }
+            }
+        }
+    }
+
+    private T valueFor(int id) {
+        var values = this.values;
+
+        return values != null ? values[id] : this.palette.valueFor(id);
+    }
+}
@@ -20,4 +20,10 @@ public interface ReadableContainerExtended<T> {
     void sodium$unpack(T[] values, int minX, int minY, int minZ, int maxX, int maxY, int maxZ);
 
     PalettedContainer<T> sodium$copy();
+
+    /**
+     * Creates a snapshot which decodes values directly from the packed storage of this container. The container must
+     * not be modified while the snapshot is in use.
+     */
+    PackedPaletteSnapshot<T> sodium$snapshot();
 }
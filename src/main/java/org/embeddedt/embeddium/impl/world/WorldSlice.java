@@ -3,6 +3,8 @@ package org.embeddedt.embeddium.impl.world;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceMap;
 import it.unimi.dsi.fastutil.longs.Long2ReferenceMap;
 import it.unimi.dsi.fastutil.longs.Long2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.neoforged.neoforge.model.data.ModelData;
 import org.embeddedt.embeddium.api.render.chunk.EmbeddiumBlockAndTintGetter;
 import org.embeddedt.embeddium.impl.Embeddium;
@@ -45,10 +47,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p>Takes a slice of world state (block states, biome and light data arrays) and copies the data for use in off-thread
@@ -85,9 +84,35 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
     // The number of bits needed for each local X/Y/Z coordinate.
     private static final int LOCAL_XYZ_BITS = 4;
 
+    // The index of the section which is being meshed, the only section which is unpacked in full.
+    private static final int CENTER_SECTION_INDEX = getLocalSectionIndex(NEIGHBOR_CHUNK_RADIUS, NEIGHBOR_CHUNK_RADIUS, NEIGHBOR_CHUNK_RADIUS);
+
+    // The number of bits needed for each local X/Y/Z coordinate of a brick within a section.
+    private static final int LOCAL_BRICK_BITS = 2;
+
+    // The number of blocks on each axis of a brick.
+    private static final int BRICK_LENGTH = 1 << LOCAL_BRICK_BITS;
+
     // The default block state used for out-of-bounds access
     private static final BlockState EMPTY_BLOCK_STATE = Blocks.AIR.defaultBlockState();
 
+    // The number of out-of-bounds block state reads, by how they were served
+    private static final LongAdder FALLBACK_MAIN_THREAD_READS = new LongAdder();
+    private static final LongAdder FALLBACK_CACHED_READS = new LongAdder();
+    private static final LongAdder FALLBACK_MISSED_READS = new LongAdder();
+
+    // The upper bounds (inclusive) of the distances tracked by FALLBACK_READS_BY_DISTANCE, in blocks outside the slice
+    private static final int[] FALLBACK_DISTANCE_BUCKETS = { 1, 4, 16, Integer.MAX_VALUE };
+
+    // The number of out-of-bounds block state reads, by their distance from the slice
+    private static final LongAdder[] FALLBACK_READS_BY_DISTANCE = new LongAdder[FALLBACK_DISTANCE_BUCKETS.length];
+
+    static {
+        for (int i = 0; i < FALLBACK_READS_BY_DISTANCE.length; i++) {
+            FALLBACK_READS_BY_DISTANCE[i] = new LongAdder();
+        }
+    }
+
     // The world this slice has copied data from
     public final ClientLevel world;
 
@@ -100,6 +125,13 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
     // (Local Section -> Block States) table.
     private final BlockState[][] blockArrays;
 
+    // (Local Section -> Packed Block States) table, used to fill in the block state table on demand.
+    private final @Nullable PackedPaletteSnapshot<BlockState>[] blockSnapshots;
+
+    // (Local Section -> Unpacked Bricks) table. Each bit marks whether a 4x4x4 brick of the section's block state
+    // array has been unpacked yet, so that neighboring sections only pay for the blocks which are actually read.
+    private final long[] unpackedBricks;
+
     // (Local Section -> Light Arrays) table.
     private final @Nullable DataLayer[][] lightArrays;
 
@@ -121,7 +153,19 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
     // Extra cloned chunk sections that the slice needed
     private final Long2ReferenceMap<ClonedChunkSection> extraClonedSections = new Long2ReferenceOpenHashMap<>();
 
+    // The sections outside of the slice which were read off the main thread, and whether any of them had not been cloned
+    private final LongOpenHashSet extraSectionsRead = new LongOpenHashSet();
+    private boolean missedExtraSections;
+
     public static ChunkRenderContext prepare(Level world, SectionPos origin, ClonedChunkSectionCache sectionCache) {
+        return prepare(world, origin, sectionCache, LongArrays.EMPTY_ARRAY);
+    }
+
+    /**
+     * Clones the sections needed to build the given section, as well as the given sections outside of the slice, which
+     * are usually those that the previous build of the section read from.
+     */
+    public static ChunkRenderContext prepare(Level world, SectionPos origin, ClonedChunkSectionCache sectionCache, long[] extraSections) {
         LevelChunk chunk = world.getChunk(origin.getX(), origin.getZ());
         LevelChunkSection section = chunk.getSections()[WorldUtil.getSectionIndexFromSectionY(world, origin.getY())];
 
@@ -162,7 +206,19 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
             }
         }
 
-        return new ChunkRenderContext(origin, sections, volume).withMeshAppenders(meshAppenders);
+        var context = new ChunkRenderContext(origin, sections, volume).withMeshAppenders(meshAppenders);
+
+        if (extraSections.length > 0) {
+            var extraClonedSections = new Long2ReferenceOpenHashMap<ClonedChunkSection>(extraSections.length);
+
+            for (long pos : extraSections) {
+                extraClonedSections.put(pos, sectionCache.acquire(SectionPos.x(pos), SectionPos.y(pos), SectionPos.z(pos)));
+            }
+
+            context.withExtraSections(extraClonedSections);
+        }
+
+        return context;
     }
 
     @SuppressWarnings("unchecked")
@@ -170,6 +226,8 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
         this.world = world;
 
         this.blockArrays = new BlockState[SECTION_ARRAY_SIZE][SECTION_BLOCK_COUNT];
+        this.blockSnapshots = new PackedPaletteSnapshot[SECTION_ARRAY_SIZE];
+        this.unpackedBricks = new long[SECTION_ARRAY_SIZE];
         this.lightArrays = new DataLayer[SECTION_ARRAY_SIZE][LIGHT_TYPES.length];
 
         this.blockEntityArrays = new Int2ReferenceMap[SECTION_ARRAY_SIZE];
@@ -203,6 +261,8 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
             }
         }
 
+        this.extraClonedSections.putAll(context.getExtraSections());
+
         this.biomeSlice.update(this.world, context);
         this.biomeColors.update(context);
     }
@@ -212,10 +272,18 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
 
         Objects.requireNonNull(section, "Chunk section must be non-null");
 
-        try {
-            this.unpackBlockData(this.blockArrays[sectionIndex], context, section);
-        } catch(RuntimeException e) {
-            throw new IllegalStateException("Exception copying block data for section: " + section.getPosition(), e);
+        this.blockSnapshots[sectionIndex] = section.getBlockSnapshot();
+        this.unpackedBricks[sectionIndex] = 0L;
+
+        if (sectionIndex == CENTER_SECTION_INDEX) {
+            // Every block of the center section will be read while meshing, so unpack it up front
+            try {
+                this.unpackBlockData(this.blockArrays[sectionIndex], section);
+            } catch(RuntimeException e) {
+                throw new IllegalStateException("Exception copying block data for section: " + section.getPosition(), e);
+            }
+
+            this.unpackedBricks[sectionIndex] = -1L;
         }
 
         this.lightArrays[sectionIndex][LightLayer.BLOCK.ordinal()] = section.getLightArray(LightLayer.BLOCK);
@@ -226,15 +294,53 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
         this.modelDataGetters[sectionIndex] = section.getModelDataGetter();
     }
 
-    private void unpackBlockData(BlockState[] blockArray, ChunkRenderContext context, ClonedChunkSection section) {
-        if (section.getBlockData() == null) {
+    private void unpackBlockData(BlockState[] blockArray, ClonedChunkSection section) {
+        var snapshot = section.getBlockSnapshot();
+
+        if (snapshot == null) {
             Arrays.fill(blockArray, EMPTY_BLOCK_STATE);
             return;
         }
 
-        var container = ReadableContainerExtended.of(section.getBlockData());
+        snapshot.unpack(blockArray);
+    }
+
+    /**
+     * Unpacks the brick containing the given local block position into the block state table of a section.
+     */
+    private void unpackBrick(int sectionIndex, int localX, int localY, int localZ, long brickBit) {
+        var blockArray = this.blockArrays[sectionIndex];
+        var snapshot = this.blockSnapshots[sectionIndex];
+
+        int minX = localX & -BRICK_LENGTH;
+        int minY = localY & -BRICK_LENGTH;
+        int minZ = localZ & -BRICK_LENGTH;
+
+        int maxX = minX + BRICK_LENGTH - 1;
+        int maxY = minY + BRICK_LENGTH - 1;
+        int maxZ = minZ + BRICK_LENGTH - 1;
+
+        if (snapshot != null) {
+            snapshot.unpack(blockArray, minX, minY, minZ, maxX, maxY, maxZ);
+        } else {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int rowIndex = getLocalBlockIndex(0, y, z);
+                    Arrays.fill(blockArray, rowIndex + minX, rowIndex + maxX + 1, EMPTY_BLOCK_STATE);
+                }
+            }
+        }
+
+        this.unpackedBricks[sectionIndex] |= brickBit;
+    }
+
+    private static long getBrickBit(int localX, int localY, int localZ) {
+        int brickX = localX >> LOCAL_BRICK_BITS;
+        int brickY = localY >> LOCAL_BRICK_BITS;
+        int brickZ = localZ >> LOCAL_BRICK_BITS;
 
-        container.sodium$unpack(blockArray);
+        return 1L << ((brickY << (LOCAL_XYZ_BITS - LOCAL_BRICK_BITS) << (LOCAL_XYZ_BITS - LOCAL_BRICK_BITS)) |
+                (brickZ << (LOCAL_XYZ_BITS - LOCAL_BRICK_BITS)) | brickX);
     }
 
     public void reset() {
@@ -247,7 +353,11 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
             this.blockEntityArrays[sectionIndex] = null;
         }
 
+        Arrays.fill(this.blockSnapshots, null);
+
         this.extraClonedSections.clear();
+        this.extraSectionsRead.clear();
+        this.missedExtraSections = false;
     }
 
     @Override
@@ -261,11 +371,24 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
         int relZ = z - this.originZ;
 
         if (!isInside(relX, relY, relZ)) {
+            recordFallbackDistance(relX, relY, relZ);
+
             return this.getBlockStateFallback(x, y, z);
         }
 
-        return this.blockArrays[getLocalSectionIndex(relX >> 4, relY >> 4, relZ >> 4)]
-                [getLocalBlockIndex(relX & 15, relY & 15, relZ & 15)];
+        int sectionIndex = getLocalSectionIndex(relX >> 4, relY >> 4, relZ >> 4);
+
+        int localX = relX & 15;
+        int localY = relY & 15;
+        int localZ = relZ & 15;
+
+        long brickBit = getBrickBit(localX, localY, localZ);
+
+        if ((this.unpackedBricks[sectionIndex] & brickBit) == 0) {
+            this.unpackBrick(sectionIndex, localX, localY, localZ, brickBit);
+        }
+
+        return this.blockArrays[sectionIndex][getLocalBlockIndex(localX, localY, localZ)];
     }
 
     @Override
@@ -423,12 +546,16 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
         return blockEntityRenderDataMap.get(getLocalBlockIndex(relX & 15, relY & 15, relZ & 15));
     }
 
+    /**
+     * Looks for an existing clone of the section containing the given block, without cloning it if there is none.
+     */
     @Nullable
     private ClonedChunkSection fetchFallbackSectionForPos(int x, int y, int z) {
         int sX = PositionUtil.posToSectionCoord(x);
         int sY = PositionUtil.posToSectionCoord(y);
         int sZ = PositionUtil.posToSectionCoord(z);
         long key = PositionUtil.packSection(sX, sY, sZ);
+        this.extraSectionsRead.add(key);
         var section = this.extraClonedSections.get(key);
         if (section != null) {
             return section;
@@ -441,19 +568,7 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
         if (manager == null) {
             return null;
         }
-        var sectionFuture = CompletableFuture.supplyAsync(() -> {
-            return manager.getSectionCache().acquire(sX, sY, sZ);
-        }, manager::scheduleAsyncTask);
-        // The game will discard the future if the player disconnects, so we need to check that they are still connected.
-        while (Minecraft.getInstance().level == this.world) {
-            try {
-                section = sectionFuture.get(500, TimeUnit.MILLISECONDS);
-                break;
-            } catch (ExecutionException e) {
-                throw new RuntimeException("Failed to fetch fallback section", e);
-            } catch (InterruptedException | TimeoutException ignored) {
-            }
-        }
+        section = manager.getSectionCache().getIfPresent(sX, sY, sZ);
         if (section != null) {
             this.extraClonedSections.put(key, section);
         }
@@ -461,22 +576,82 @@ public class WorldSlice implements EmbeddiumBlockAndTintGetter {
     }
 
     /**
-     * Read the block state off the main thread (safely) by cloning the needed section.
+     * Reads a block state outside the slice without blocking. Off the main thread, this only uses a section which was
+     * cloned up front for this slice or which has already been cloned for another task, as the live chunk data may be
+     * modified by the main thread at any time. If there is no such clone, the block is read as air for now, and the
+     * miss is reported through {@link #hasMissedExtraSections()} so that the section can be built again once the clone
+     * exists.
      */
     private BlockState getBlockStateFallback(int x, int y, int z) {
         if (Minecraft.getInstance().isSameThread()) {
+            FALLBACK_MAIN_THREAD_READS.increment();
             this.fallbackPos.set(x, y, z);
             return this.world.getBlockState(this.fallbackPos);
+        }
+
+        ClonedChunkSection sectionSnapshot = this.fetchFallbackSectionForPos(x, y, z);
+
+        if (sectionSnapshot != null) {
+            FALLBACK_CACHED_READS.increment();
+            return sectionSnapshot.getBlockState(x & 15, y & 15, z & 15);
+        }
+
+        FALLBACK_MISSED_READS.increment();
+        this.missedExtraSections = true;
+
+        return EMPTY_BLOCK_STATE;
+    }
+
+    /**
+     * {@return the packed positions of the sections outside of the slice which were read off the main thread}
+     */
+    public long[] getExtraSectionsRead() {
+        return this.extraSectionsRead.isEmpty() ? LongArrays.EMPTY_ARRAY : this.extraSectionsRead.toLongArray();
+    }
+
+    /**
+     * {@return true if a block was read from a section outside of the slice which had not been cloned, in which case
+     * the block was read as air}
+     */
+    public boolean hasMissedExtraSections() {
+        return this.missedExtraSections;
+    }
+
+    private static void recordFallbackDistance(int relX, int relY, int relZ) {
+        int distance = Math.max(getDistanceOutside(relX), Math.max(getDistanceOutside(relY), getDistanceOutside(relZ)));
+        int bucket = 0;
+
+        while (distance > FALLBACK_DISTANCE_BUCKETS[bucket]) {
+            bucket++;
+        }
+
+        FALLBACK_READS_BY_DISTANCE[bucket].increment();
+    }
+
+    private static int getDistanceOutside(int rel) {
+        if (rel < 0) {
+            return -rel;
+        } else if (rel >= BLOCK_ARRAY_LENGTH) {
+            return rel - BLOCK_ARRAY_LENGTH + 1;
         } else {
-            ClonedChunkSection sectionSnapshot = this.fetchFallbackSectionForPos(x, y, z);
-            if (sectionSnapshot != null) {
-                return sectionSnapshot.getBlockState(x & 15, y & 15, z & 15);
-            } else {
-                return EMPTY_BLOCK_STATE;
-            }
+            return 0;
         }
     }
 
+    /**
+     * {@return a summary of the block state reads which fell outside of any slice}
+     */
+    public static String getFallbackDebugString() {
+        return String.format("Slice Fallbacks: M=%d C=%d X=%d (<=1: %d, <=4: %d, <=16: %d, >16: %d)",
+                FALLBACK_MAIN_THREAD_READS.sum(),
+                FALLBACK_CACHED_READS.sum(),
+                FALLBACK_MISSED_READS.sum(),
+                FALLBACK_READS_BY_DISTANCE[0].sum(),
+                FALLBACK_READS_BY_DISTANCE[1].sum(),
+                FALLBACK_READS_BY_DISTANCE[2].sum(),
+                FALLBACK_READS_BY_DISTANCE[3].sum());
+    }
+
     public static int getLocalBlockIndex(int x, int y, int z) {
         return (y << LOCAL_XYZ_BITS << LOCAL_XYZ_BITS) | (z << LOCAL_XYZ_BITS) | x;
     }
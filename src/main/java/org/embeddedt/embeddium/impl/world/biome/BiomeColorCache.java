@@ -5,9 +5,14 @@ import org.embeddedt.embeddium.impl.util.color.BoxBlur;
 import org.embeddedt.embeddium.impl.util.color.BoxBlur.ColorBuffer;
 import org.embeddedt.embeddium.impl.world.cloned.ChunkRenderContext;
 import net.minecraft.client.renderer.BiomeColors;
+import net.minecraft.core.QuartPos;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ColorResolver;
 import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSpecialEffects;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
 
 public class BiomeColorCache {
     private static final int NEIGHBOR_BLOCK_RADIUS = 2;
@@ -20,10 +25,21 @@ public class BiomeColorCache {
 
     private final ColorBuffer tempColorBuffer;
 
+    // The layers shared with other meshing tasks through the shared cache, indexed by their relative y-coordinate.
+    // These are cleared at the start of each task, and looked up again from the shared cache when first used.
+    private final Reference2ReferenceOpenHashMap<ColorResolver, SharedBiomeColorCache.Layer[]> sharedLayers;
+    private final ColorBuffer layerColorBuffer, layerTempColorBuffer;
+
+    private @Nullable SharedBiomeColorCache sharedCache;
+    private @Nullable Biome uniformBiome;
+
+    private int chunkX, chunkZ;
+
     private int minX, minY, minZ;
     private int maxX, maxY, maxZ;
 
     private final int sizeXZ, sizeY;
+    private final int layerSize;
 
     public BiomeColorCache(BiomeSlice biomeData, int blendRadius) {
         this.biomeData = biomeData;
@@ -36,6 +52,12 @@ public class BiomeColorCache {
         this.populateStamp = 1;
 
         this.tempColorBuffer = new ColorBuffer(sizeXZ, sizeXZ);
+
+        this.layerSize = 16 + (this.blendRadius * 2);
+
+        this.sharedLayers = new Reference2ReferenceOpenHashMap<>();
+        this.layerColorBuffer = new ColorBuffer(this.layerSize, this.layerSize);
+        this.layerTempColorBuffer = new ColorBuffer(this.layerSize, this.layerSize);
     }
 
     public void update(ChunkRenderContext context) {
@@ -48,6 +70,16 @@ public class BiomeColorCache {
         this.maxZ = (context.getOrigin().maxBlockZ() + NEIGHBOR_BLOCK_RADIUS) + this.blendRadius;
 
         this.populateStamp++;
+
+        this.sharedCache = context.getBiomeColorCache();
+        this.uniformBiome = this.biomeData.getUniformBiome();
+
+        this.chunkX = context.getOrigin().getX();
+        this.chunkZ = context.getOrigin().getZ();
+
+        for (var layers : this.sharedLayers.values()) {
+            Arrays.fill(layers, null);
+        }
     }
 
     public int getColor(BiomeColorSource source, int blockX, int blockY, int blockZ) {
@@ -59,10 +91,27 @@ public class BiomeColorCache {
     }
 
     public int getColor(ColorResolver resolver, int blockX, int blockY, int blockZ) {
+        var uniformBiome = this.uniformBiome;
+
+        // When every biome around the section is the same, blending can only produce the color of that biome
+        if (uniformBiome != null && isPositionIndependent(resolver, uniformBiome)) {
+            if (this.sharedCache != null) {
+                this.sharedCache.recordUniformHit();
+            }
+
+            return resolver.getColor(uniformBiome, blockX, blockZ);
+        }
+
         var relX = Mth.clamp(blockX, this.minX, this.maxX) - this.minX;
         var relY = Mth.clamp(blockY, this.minY, this.maxY) - this.minY;
         var relZ = Mth.clamp(blockZ, this.minZ, this.maxZ) - this.minZ;
 
+        // Only the layers within the section's own chunk are shared, as the blocks outside of it are rarely tinted
+        if (this.sharedCache != null && ((relX + this.minX) >> 4) == this.chunkX && ((relZ + this.minZ) >> 4) == this.chunkZ) {
+            return this.getSharedLayer(resolver, relY)
+                    .getColor(blockX, blockZ);
+        }
+
         if (!this.slices.containsKey(resolver)) {
             this.initializeSlices(resolver);
         }
@@ -78,6 +127,97 @@ public class BiomeColorCache {
         return buffer.get(relX, relZ);
     }
 
+    private SharedBiomeColorCache.Layer getSharedLayer(ColorResolver resolver, int relY) {
+        var layers = this.sharedLayers.get(resolver);
+
+        if (layers == null) {
+            layers = new SharedBiomeColorCache.Layer[this.sizeY];
+            this.sharedLayers.put(resolver, layers);
+        }
+
+        var layer = layers[relY];
+
+        if (layer == null) {
+            int worldY = this.minY + relY;
+
+            layer = this.sharedCache.get(resolver, this.chunkX, worldY, this.chunkZ, this.blendRadius, this.biomeData);
+
+            if (layer == null) {
+                layer = this.createSharedLayer(resolver, worldY);
+                this.sharedCache.put(resolver, this.chunkX, worldY, this.chunkZ, layer);
+            }
+
+            layers[relY] = layer;
+        }
+
+        return layer;
+    }
+
+    private SharedBiomeColorCache.Layer createSharedLayer(ColorResolver resolver, int worldY) {
+        var buffer = this.layerColorBuffer;
+
+        int originX = (this.chunkX << 4) - this.blendRadius;
+        int originZ = (this.chunkZ << 4) - this.blendRadius;
+
+        for (int relZ = 0; relZ < this.layerSize; relZ++) {
+            for (int relX = 0; relX < this.layerSize; relX++) {
+                int worldX = originX + relX;
+                int worldZ = originZ + relZ;
+
+                Biome biome = this.biomeData.getBiome(worldX, worldY, worldZ).value();
+
+                buffer.set(relX, relZ, resolver.getColor(biome, worldX, worldZ));
+            }
+        }
+
+        // The blurred colors of the blocks within the chunk only depend on the colors within the blend radius of them,
+        // so they are the same as those produced by blurring the larger area of the per-task slices
+        if (this.blendRadius > 0) {
+            BoxBlur.blur(buffer, this.layerTempColorBuffer, this.blendRadius);
+        }
+
+        int[] colors = new int[16 * 16];
+
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                colors[(z << 4) | x] = buffer.get(x + this.blendRadius, z + this.blendRadius);
+            }
+        }
+
+        // Each block resolves its biome from the 2x2x2 cells nearest to it, after being offset by half a cell
+        int minQuartX = QuartPos.fromBlock(originX - 2);
+        int minQuartY = QuartPos.fromBlock(worldY - 2);
+        int minQuartZ = QuartPos.fromBlock(originZ - 2);
+
+        int sizeX = QuartPos.fromBlock(originX + this.layerSize - 1 - 2) + 2 - minQuartX;
+        int sizeY = 2;
+        int sizeZ = QuartPos.fromBlock(originZ + this.layerSize - 1 - 2) + 2 - minQuartZ;
+
+        var dependencies = new Biome[sizeX * sizeY * sizeZ];
+        int index = 0;
+
+        for (int x = 0; x < sizeX; x++) {
+            for (int y = 0; y < sizeY; y++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    dependencies[index++] = this.biomeData.getCellBiome(minQuartX + x, minQuartY + y, minQuartZ + z);
+                }
+            }
+        }
+
+        return new SharedBiomeColorCache.Layer(colors, this.blendRadius, dependencies,
+                minQuartX, minQuartY, minQuartZ, sizeX, sizeY, sizeZ);
+    }
+
+    private static boolean isPositionIndependent(ColorResolver resolver, Biome biome) {
+        if (resolver == BiomeColors.FOLIAGE_COLOR_RESOLVER || resolver == BiomeColors.WATER_COLOR_RESOLVER) {
+            return true;
+        }
+
+        // Grass color modifiers (such as the noise used by swamps) can vary the color with the position
+        return resolver == BiomeColors.GRASS_COLOR_RESOLVER &&
+                biome.getSpecialEffects().getGrassColorModifier() == BiomeSpecialEffects.GrassColorModifier.NONE;
+    }
+
     private void initializeSlices(ColorResolver resolver) {
         var slice = new Slice[this.sizeY];
         this.slices.put(resolver, slice);
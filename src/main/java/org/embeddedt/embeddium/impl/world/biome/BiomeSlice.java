@@ -15,6 +15,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.Biomes;
 import net.minecraft.world.level.chunk.PalettedContainerRO;
+import org.jetbrains.annotations.Nullable;
 
 public class BiomeSlice {
     private static final int SIZE = 3 * 4; // 3 chunks * 4 biomes per chunk
@@ -25,6 +26,9 @@ public class BiomeSlice {
     private final boolean[] uniform = new boolean[SIZE * SIZE * SIZE];
     private final BiasMap bias = new BiasMap();
 
+    // The biome of every cell, if they are all the same
+    private @Nullable Biome uniformBiome;
+
     private long biomeSeed;
 
     private int worldX, worldY, worldZ;
@@ -40,6 +44,7 @@ public class BiomeSlice {
 
         this.calculateBias();
         this.calculateUniform();
+        this.uniformBiome = this.findUniformBiome();
     }
 
     private void copyBiomeData(Level world, ChunkRenderContext context) {
@@ -88,6 +93,19 @@ public class BiomeSlice {
         }
     }
 
+    @Nullable
+    private Biome findUniformBiome() {
+        Biome biome = this.biomes[0].value();
+
+        for (int i = 1; i < this.biomes.length; i++) {
+            if (this.biomes[i].value() != biome) {
+                return null;
+            }
+        }
+
+        return biome;
+    }
+
     private void calculateBias() {
         int offsetX = this.worldX >> 2;
         int offsetY = this.worldY >> 2;
@@ -147,6 +165,36 @@ public class BiomeSlice {
         return true;
     }
 
+    /**
+     * {@return the biome which every position within the slice resolves to, or null if there is more than one}
+     */
+    @Nullable
+    public Biome getUniformBiome() {
+        return this.uniformBiome;
+    }
+
+    /**
+     * Returns the biome of the given cell, which {@link #getBiome(int, int, int)} chooses between for the positions
+     * near it.
+     *
+     * @param quartX The x-coordinate of the cell, in world quart coordinates
+     * @param quartY The y-coordinate of the cell, in world quart coordinates
+     * @param quartZ The z-coordinate of the cell, in world quart coordinates
+     * @return The biome of the cell, or null if the cell is not within the slice
+     */
+    @Nullable
+    public Biome getCellBiome(int quartX, int quartY, int quartZ) {
+        int x = quartX - QuartPos.fromBlock(this.worldX);
+        int y = quartY - QuartPos.fromBlock(this.worldY);
+        int z = quartZ - QuartPos.fromBlock(this.worldZ);
+
+        if (x < 0 || x >= SIZE || y < 0 || y >= SIZE || z < 0 || z >= SIZE) {
+            return null;
+        }
+
+        return this.biomes[dataArrayIndex(x, y, z)].value();
+    }
+
     public Holder<Biome> getBiome(int x, int y, int z) {
         int relX = x - this.worldX;
         int relY = y - this.worldY;
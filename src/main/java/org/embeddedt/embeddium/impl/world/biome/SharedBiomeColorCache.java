@@ -0,0 +1,198 @@
+package org.embeddedt.embeddium.impl.world.biome;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ReferenceLinkedOpenHashMap;
+import net.minecraft.world.level.ColorResolver;
+import net.minecraft.world.level.biome.Biome;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the blended biome colors of each layer of blocks within a chunk, so that they can be shared between the
+ * meshing tasks of the section containing them, the sections next to it, and later rebuilds of the same sections.
+ *
+ * <p>Each entry records the biomes which its colors were computed from, and is only used if those biomes are still
+ * the same. This means that entries never need to be invalidated when biomes change, as they will simply stop
+ * matching. The least recently used entries are evicted once the cache is full.</p>
+ *
+ * <p>The cache is split into shards which are locked independently, so that it can be used from multiple threads
+ * without contending on a single lock.</p>
+ */
+public class SharedBiomeColorCache {
+    private static final int SHARD_COUNT = 16; /* must be a power of two */
+    private static final int SHARD_CAPACITY = 256; /* number of entries */
+
+    // Resolvers are identified by a small index within the key, see #getKey
+    private static final int MAX_RESOLVERS = 256;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+
+    // Looked up on every access, so it must not be locked once a resolver has been assigned an id
+    private final ConcurrentHashMap<ColorResolver, Integer> resolverIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextResolverId = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uniformHits = new LongAdder();
+
+    public SharedBiomeColorCache() {
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            this.shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Returns the cached colors of the given layer, if they were computed with the same blend radius and from the same
+     * biomes as those currently held by the given biome slice.
+     */
+    @Nullable
+    public Layer get(ColorResolver resolver, int chunkX, int blockY, int chunkZ, int blendRadius, BiomeSlice biomes) {
+        long key = this.getKey(resolver, chunkX, blockY, chunkZ);
+
+        if (key == Long.MIN_VALUE) {
+            return null;
+        }
+
+        var shard = this.getShard(key);
+        Layer layer;
+
+        synchronized (shard) {
+            layer = shard.entries.getAndMoveToLast(key);
+        }
+
+        if (layer != null && layer.blendRadius == blendRadius && layer.matches(biomes)) {
+            this.hits.increment();
+            return layer;
+        }
+
+        this.misses.increment();
+        return null;
+    }
+
+    public void put(ColorResolver resolver, int chunkX, int blockY, int chunkZ, Layer layer) {
+        long key = this.getKey(resolver, chunkX, blockY, chunkZ);
+
+        if (key == Long.MIN_VALUE) {
+            return;
+        }
+
+        var shard = this.getShard(key);
+
+        synchronized (shard) {
+            while (shard.entries.size() >= SHARD_CAPACITY) {
+                shard.entries.removeFirst();
+            }
+
+            shard.entries.putAndMoveToLast(key, layer);
+        }
+    }
+
+    /**
+     * Records that a color was resolved without blending, because every biome around the section was the same.
+     */
+    public void recordUniformHit() {
+        this.uniformHits.increment();
+    }
+
+    public String getDebugString() {
+        int size = 0;
+
+        for (var shard : this.shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+
+        return String.format("Biome Colors: %d/%d (H=%d M=%d U=%d)",
+                size,
+                SHARD_CAPACITY * SHARD_COUNT,
+                this.hits.sum(),
+                this.misses.sum(),
+                this.uniformHits.sum());
+    }
+
+    /**
+     * Packs the resolver and position into a key, with 8 bits for the resolver, 22 bits for each chunk coordinate,
+     * and 12 bits for the block height.
+     *
+     * @return The key, or {@link Long#MIN_VALUE} if the entry cannot be cached
+     */
+    private long getKey(ColorResolver resolver, int chunkX, int blockY, int chunkZ) {
+        Integer resolverId = this.resolverIds.computeIfAbsent(resolver, this::allocateResolverId);
+
+        if (resolverId == null) {
+            return Long.MIN_VALUE;
+        }
+
+        return ((long) resolverId << 56) |
+                ((chunkX & 0x3FFFFFL) << 34) |
+                ((chunkZ & 0x3FFFFFL) << 12) |
+                (blockY & 0xFFFL);
+    }
+
+    /**
+     * @return The next free resolver id, or null if they have all been used, in which case nothing is recorded for the
+     * resolver and entries for it are never cached
+     */
+    @Nullable
+    private Integer allocateResolverId(ColorResolver resolver) {
+        int id = this.nextResolverId.getAndUpdate(next -> Math.min(next + 1, MAX_RESOLVERS));
+
+        return id < MAX_RESOLVERS ? id : null;
+    }
+
+    private Shard getShard(long key) {
+        return this.shards[(int) HashCommon.mix(key) & (SHARD_COUNT - 1)];
+    }
+
+    /**
+     * The blended colors of a 16x16 layer of blocks within a chunk, and the biome cells which they depend on.
+     */
+    public static final class Layer {
+        private final int[] colors;
+        private final int blendRadius;
+
+        private final Biome[] dependencies;
+        private final int minQuartX, minQuartY, minQuartZ;
+        private final int sizeX, sizeY, sizeZ;
+
+        Layer(int[] colors, int blendRadius, Biome[] dependencies, int minQuartX, int minQuartY, int minQuartZ, int sizeX, int sizeY, int sizeZ) {
+            this.colors = colors;
+            this.blendRadius = blendRadius;
+            this.dependencies = dependencies;
+            this.minQuartX = minQuartX;
+            this.minQuartY = minQuartY;
+            this.minQuartZ = minQuartZ;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+        }
+
+        public int getColor(int blockX, int blockZ) {
+            return this.colors[((blockZ & 15) << 4) | (blockX & 15)];
+        }
+
+        private boolean matches(BiomeSlice biomes) {
+            int index = 0;
+
+            for (int x = 0; x < this.sizeX; x++) {
+                for (int y = 0; y < this.sizeY; y++) {
+                    for (int z = 0; z < this.sizeZ; z++) {
+                        if (biomes.getCellBiome(this.minQuartX + x, this.minQuartY + y, this.minQuartZ + z) != this.dependencies[index++]) {
+                            return false;
+                        }
+                    }
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static class Shard {
+        private final Long2ReferenceLinkedOpenHashMap<Layer> entries = new Long2ReferenceLinkedOpenHashMap<>();
+    }
+}
@@ -1,8 +1,12 @@
 package org.embeddedt.embeddium.impl.world.cloned;
 
+import it.unimi.dsi.fastutil.longs.Long2ReferenceMap;
+import it.unimi.dsi.fastutil.longs.Long2ReferenceMaps;
 import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import org.embeddedt.embeddium.api.MeshAppender;
+import org.embeddedt.embeddium.impl.world.biome.SharedBiomeColorCache;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
@@ -12,6 +16,8 @@ public class ChunkRenderContext {
     private final ClonedChunkSection[] sections;
     private final BoundingBox volume;
     private List<MeshAppender> meshAppenders = Collections.emptyList();
+    private @Nullable SharedBiomeColorCache biomeColorCache;
+    private Long2ReferenceMap<ClonedChunkSection> extraSections = Long2ReferenceMaps.emptyMap();
 
     public ChunkRenderContext(SectionPos origin, ClonedChunkSection[] sections, BoundingBox volume) {
         this.origin = origin;
@@ -24,6 +30,16 @@ public class ChunkRenderContext {
         return this;
     }
 
+    public ChunkRenderContext withExtraSections(Long2ReferenceMap<ClonedChunkSection> extraSections) {
+        this.extraSections = extraSections;
+        return this;
+    }
+
+    public ChunkRenderContext withBiomeColorCache(SharedBiomeColorCache biomeColorCache) {
+        this.biomeColorCache = biomeColorCache;
+        return this;
+    }
+
     public ClonedChunkSection[] getSections() {
         return this.sections;
     }
@@ -39,4 +55,15 @@ public class ChunkRenderContext {
     public List<MeshAppender> getMeshAppenders() {
         return this.meshAppenders;
     }
+
+    /**
+     * {@return the sections outside of the slice which were cloned up front, keyed by their packed position}
+     */
+    public Long2ReferenceMap<ClonedChunkSection> getExtraSections() {
+        return this.extraSections;
+    }
+
+    public @Nullable SharedBiomeColorCache getBiomeColorCache() {
+        return this.biomeColorCache;
+    }
 }
@@ -3,8 +3,6 @@ package org.embeddedt.embeddium.impl.world.cloned;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceMap;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceMaps;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceOpenHashMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
 import lombok.Getter;
 import net.minecraft.Util;
 import net.minecraft.nbt.NbtUtils;
@@ -12,10 +10,11 @@ import net.minecraft.world.level.chunk.*;
 import org.embeddedt.embeddium.impl.model.ModelDataSnapshotter;
 import org.embeddedt.embeddium.impl.util.PositionUtil;
 import org.embeddedt.embeddium.impl.util.WorldUtil;
+import org.embeddedt.embeddium.impl.world.BlockEntityIndexExtended;
 import org.embeddedt.embeddium.impl.world.ChunkBiomeContainerExtended;
+import org.embeddedt.embeddium.impl.world.PackedPaletteSnapshot;
 import org.embeddedt.embeddium.impl.world.ReadableContainerExtended;
 import org.embeddedt.embeddium.impl.world.WorldSlice;
-import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
 import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.Level;
@@ -26,12 +25,9 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.DebugLevelSource;
-import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
-
 public class ClonedChunkSection {
     private static final int DATA_LAYER_COUNT = DataLayer.LAYER_COUNT;
     private static final DataLayer DEFAULT_SKY_LIGHT_ARRAY = new DataLayer(15);
@@ -50,9 +46,10 @@ public class ClonedChunkSection {
 
     private final @Nullable PalettedContainer<BlockState> blockData;
 
-    private final @Nullable PalettedContainer<Holder<Biome>> biomeData;
+    // Decodes directly from the storage of the cloned block data, which is never modified
+    private final @Nullable PackedPaletteSnapshot<BlockState> blockSnapshot;
 
-    private long lastUsedTimestamp = Long.MAX_VALUE;
+    private final @Nullable PalettedContainer<Holder<Biome>> biomeData;
 
     static {
         HAS_FABRIC_RENDER_DATA = false;
@@ -74,7 +71,7 @@ public class ClonedChunkSection {
                 } else {
                     blockData = constructDebugWorldContainer(world, pos);
                 }
-                blockEntityMap = copyBlockEntities(chunk, pos);
+                blockEntityMap = copyBlockEntities(world, chunk, pos);
 
                 if (blockEntityMap != null) {
                     blockEntityRenderDataMap = copyBlockEntityRenderData(blockEntityMap);
@@ -85,6 +82,7 @@ public class ClonedChunkSection {
         }
 
         this.blockData = blockData;
+        this.blockSnapshot = blockData != null ? ReadableContainerExtended.of(blockData).sodium$snapshot() : null;
         this.biomeData = biomeData;
 
         this.blockEntityMap = blockEntityMap;
@@ -158,47 +156,21 @@ public class ClonedChunkSection {
         return array;
     }
 
-    private static Iterable<Map.Entry<BlockPos, BlockEntity>> fastIterable(Map<BlockPos, BlockEntity> blockEntityMap) {
-        if (blockEntityMap instanceof Object2ObjectMap<BlockPos, BlockEntity> fastutilMap) {
-            //noinspection unchecked
-            return (Iterable<Map.Entry<BlockPos, BlockEntity>>)(Iterable<?>)Object2ObjectMaps.fastIterable(fastutilMap);
-        } else {
-            return blockEntityMap.entrySet();
-        }
-    }
-
     @Nullable
-    private static Int2ReferenceMap<BlockEntity> copyBlockEntities(LevelChunk chunk, SectionPos chunkCoord) {
-        var chunkBlockEntityMap = chunk.getBlockEntities();
-
-        if (chunkBlockEntityMap.isEmpty()) {
+    private static Int2ReferenceMap<BlockEntity> copyBlockEntities(Level world, LevelChunk chunk, SectionPos chunkCoord) {
+        if (chunk.getBlockEntities().isEmpty()) {
             return null;
         }
 
-        BoundingBox box = new BoundingBox(chunkCoord.minBlockX(), chunkCoord.minBlockY(), chunkCoord.minBlockZ(),
-                chunkCoord.maxBlockX(), chunkCoord.maxBlockY(), chunkCoord.maxBlockZ());
-
-        Int2ReferenceOpenHashMap<BlockEntity> blockEntities = null;
-
-        // Copy the block entities from the chunk into our cloned section
-        for (Map.Entry<BlockPos, BlockEntity> entry : fastIterable(chunkBlockEntityMap)) {
-            BlockPos pos = entry.getKey();
-            BlockEntity entity = entry.getValue();
-
-            if (box.isInside(pos)) {
-                if (blockEntities == null) {
-                    blockEntities = new Int2ReferenceOpenHashMap<>();
-                }
-
-                blockEntities.put(WorldSlice.getLocalBlockIndex(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15), entity);
-            }
-        }
+        // The chunk keeps its block entities grouped by section, so only the ones in this section need to be copied
+        var sectionBlockEntities = BlockEntityIndexExtended.of(chunk)
+                .sodium$getSectionBlockEntities(world.getSectionIndexFromSectionY(chunkCoord.getY()));
 
-        if (blockEntities != null) {
-            blockEntities.trim();
+        if (sectionBlockEntities == null || sectionBlockEntities.isEmpty()) {
+            return null;
         }
 
-        return blockEntities;
+        return new Int2ReferenceOpenHashMap<>(sectionBlockEntities);
     }
 
     @Nullable
@@ -214,6 +186,10 @@ public class ClonedChunkSection {
         return this.blockData;
     }
 
+    public @Nullable PackedPaletteSnapshot<BlockState> getBlockSnapshot() {
+        return this.blockSnapshot;
+    }
+
     //? if >=1.18.2 {
     public @Nullable PalettedContainer<Holder<Biome>> getBiomeData() {
         return this.biomeData;
@@ -232,17 +208,9 @@ public class ClonedChunkSection {
         return this.lightDataArrays[lightType.ordinal()];
     }
 
-    public long getLastUsedTimestamp() {
-        return this.lastUsedTimestamp;
-    }
-
-    public void setLastUsedTimestamp(long timestamp) {
-        this.lastUsedTimestamp = timestamp;
-    }
-
     public BlockState getBlockState(int x, int y, int z) {
-        if (this.blockData != null) {
-            return this.blockData.get(x, y, z);
+        if (this.blockSnapshot != null) {
+            return this.blockSnapshot.get(WorldSlice.getLocalBlockIndex(x, y, z));
         } else {
             return Blocks.AIR.defaultBlockState();
         }
@@ -1,56 +1,128 @@
 package org.embeddedt.embeddium.impl.world.cloned;
 
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.Long2ReferenceLinkedOpenHashMap;
+import org.embeddedt.embeddium.impl.util.WorldUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
 
+/**
+ * Caches the cloned sections used to build chunk meshes, so that the overlapping neighborhoods of nearby sections
+ * only need to copy each section once.
+ *
+ * <p>Entries stay valid until the section they were cloned from changes, which the owner of the cache must report
+ * through {@link #invalidate(int, int, int)} or {@link #invalidateChunk(int, int)}. The least recently used entries
+ * are evicted once the cache reaches its capacity, which should be scaled with the number of loaded sections through
+ * {@link #setCapacity(int)}.</p>
+ *
+ * <p>The cache is split into shards which are locked independently, so that it can be used from multiple threads
+ * without contending on a single lock. Sections are cloned outside of any lock.</p>
+ */
 public class ClonedChunkSectionCache {
-    private static final int MAX_CACHE_SIZE = 512; /* number of entries */
-    private static final long MAX_CACHE_DURATION = TimeUnit.SECONDS.toNanos(5); /* number of nanoseconds */
+    private static final int SHARD_COUNT = 16; /* must be a power of two */
+
+    private static final int MIN_CAPACITY = 512; /* number of entries */
+    private static final int LOADED_SECTIONS_PER_ENTRY = 16;
 
     private final Level world;
 
-    private final Long2ReferenceLinkedOpenHashMap<ClonedChunkSection> positionToEntry = new Long2ReferenceLinkedOpenHashMap<>();
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+
+    private volatile int shardCapacity;
 
-    private long time; // updated once per frame to be the elapsed time since application start
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
 
     public ClonedChunkSectionCache(Level world) {
         this.world = world;
-        this.time = getMonotonicTimeSource();
+
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            this.shards[i] = new Shard();
+        }
+
+        this.setCapacity(0);
     }
 
-    public synchronized void cleanup() {
-        this.time = getMonotonicTimeSource();
-        this.positionToEntry.values()
-                .removeIf(entry -> this.time > (entry.getLastUsedTimestamp() + MAX_CACHE_DURATION));
+    /**
+     * Updates the maximum number of entries to keep, based on the number of sections which are currently loaded. If the
+     * capacity shrinks, the excess entries are evicted as new sections are added.
+     */
+    public void setCapacity(int loadedSections) {
+        int capacity = Math.max(MIN_CAPACITY, loadedSections / LOADED_SECTIONS_PER_ENTRY);
+
+        this.shardCapacity = (capacity + SHARD_COUNT - 1) / SHARD_COUNT;
     }
 
     @Nullable
-    public synchronized ClonedChunkSection acquire(int x, int y, int z) {
+    public ClonedChunkSection acquire(int x, int y, int z) {
         var pos = SectionPos.asLong(x, y, z);
-        var section = this.positionToEntry.getAndMoveToLast(pos);
+        var shard = this.getShard(pos);
 
-        if (section == null) {
-            section = this.clone(x, y, z);
+        long version;
 
-            while (this.positionToEntry.size() >= MAX_CACHE_SIZE) {
-                this.positionToEntry.removeFirst();
+        synchronized (shard) {
+            var section = shard.positionToEntry.getAndMoveToLast(pos);
+
+            if (section != null) {
+                this.hits.increment();
+                return section;
             }
 
-            this.positionToEntry.putAndMoveToLast(pos, section);
+            version = shard.version;
         }
 
-        section.setLastUsedTimestamp(this.time);
+        this.misses.increment();
+
+        var section = this.clone(x, y, z);
+
+        synchronized (shard) {
+            // If the shard was invalidated while the section was being cloned, the clone may already be out of date, so
+            // it is handed out once without being cached
+            if (shard.version != version) {
+                return section;
+            }
+
+            var existing = shard.positionToEntry.getAndMoveToLast(pos);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            int capacity = this.shardCapacity;
+
+            while (shard.positionToEntry.size() >= capacity) {
+                shard.positionToEntry.removeFirst();
+                this.evictions.increment();
+            }
+
+            shard.positionToEntry.putAndMoveToLast(pos, section);
+        }
 
         return section;
     }
 
+    /**
+     * Returns the cached copy of the given section without cloning it if it is missing. Unlike
+     * {@link #acquire(int, int, int)}, this is safe to call from any thread.
+     */
+    @Nullable
+    public ClonedChunkSection getIfPresent(int x, int y, int z) {
+        var pos = SectionPos.asLong(x, y, z);
+        var shard = this.getShard(pos);
+
+        synchronized (shard) {
+            return shard.positionToEntry.get(pos);
+        }
+    }
+
     @NotNull
     private ClonedChunkSection clone(int x, int y, int z) {
         LevelChunk chunk = this.world.getChunk(x, z);
@@ -68,12 +140,62 @@ public class ClonedChunkSectionCache {
         return new ClonedChunkSection(this.world, chunk, section, SectionPos.of(x, y, z));
     }
 
-    public synchronized void invalidate(int x, int y, int z) {
-        this.positionToEntry.remove(SectionPos.asLong(x, y, z));
+    /**
+     * Removes the cached copy of the given section, if any. This must be called whenever the blocks, block entities
+     * or light of the section change.
+     */
+    public void invalidate(int x, int y, int z) {
+        var pos = SectionPos.asLong(x, y, z);
+        var shard = this.getShard(pos);
+
+        synchronized (shard) {
+            shard.version++;
+
+            if (shard.positionToEntry.remove(pos) != null) {
+                this.invalidations.increment();
+            }
+        }
     }
 
-    private static long getMonotonicTimeSource() {
-        // Should be monotonic in JDK 17 on sane platforms...
-        return System.nanoTime();
+    /**
+     * Removes the cached copies of every section in the given chunk, including the sections just outside the build
+     * height which neighboring sections may have cloned. This must be called whenever the chunk is loaded or unloaded.
+     */
+    public void invalidateChunk(int x, int z) {
+        int minY = WorldUtil.getMinSection(this.world) - 1;
+        int maxY = WorldUtil.getMaxSection(this.world) + 1;
+
+        for (int y = minY; y <= maxY; y++) {
+            this.invalidate(x, y, z);
+        }
+    }
+
+    public String getDebugString() {
+        int size = 0;
+
+        for (var shard : this.shards) {
+            synchronized (shard) {
+                size += shard.positionToEntry.size();
+            }
+        }
+
+        return String.format("Section Cache: %d/%d (H=%d M=%d E=%d I=%d)",
+                size,
+                this.shardCapacity * SHARD_COUNT,
+                this.hits.sum(),
+                this.misses.sum(),
+                this.evictions.sum(),
+                this.invalidations.sum());
+    }
+
+    private Shard getShard(long pos) {
+        return this.shards[(int) HashCommon.mix(pos) & (SHARD_COUNT - 1)];
+    }
+
+    private static class Shard {
+        private final Long2ReferenceLinkedOpenHashMap<ClonedChunkSection> positionToEntry = new Long2ReferenceLinkedOpenHashMap<>();
+
+        // Incremented on every invalidation, so that clones which raced with one are not cached
+        private long version;
     }
 }
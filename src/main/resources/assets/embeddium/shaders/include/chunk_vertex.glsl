@@ -16,12 +16,22 @@ uint _draw_id;
 // The material bits for the primitive
 uint _material_params;
 
+#ifdef USE_TEXTURE_TILING
+// The region of the block texture which repeats across the primitive (xy = origin, zw = size), or a zero size if the
+// texture coordinates should be used as-is
+vec4 _vert_tex_tile;
+#endif
+
 #ifdef USE_VERTEX_COMPRESSION
 in uvec4 a_PosId;
 in vec4 a_Color;
 in vec2 a_TexCoord;
 in ivec2 a_LightCoord;
 
+#ifdef USE_TEXTURE_TILING
+in vec4 a_TexTile;
+#endif
+
 #if !defined(VERT_POS_SCALE)
 #error "VERT_POS_SCALE not defined"
 #elif !defined(VERT_POS_OFFSET)
@@ -38,6 +48,10 @@ void _vert_init() {
 
     _draw_id = (a_PosId.w >> 8u) & 0xFFu;
     _material_params = (a_PosId.w >> 0u) & 0xFFu;
+
+#ifdef USE_TEXTURE_TILING
+    _vert_tex_tile = (a_TexTile * VERT_TEX_SCALE);
+#endif
 }
 
 #else